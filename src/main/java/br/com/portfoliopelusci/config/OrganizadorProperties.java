@@ -42,6 +42,50 @@ public class OrganizadorProperties {
 
     private boolean overwriteExisting = true;
 
+    // Limite (bytes estimados) do cache de linhas de planilha; 0 desativa
+    private long cachePlanilhaMaxBytes = 64L * 1024 * 1024;
+
+    // Quantidade de cópias de ordens executadas em paralelo
+    private int copyParallelism = 4;
+
+    // Threads usadas para descompactar ZIPs já presentes em disco
+    private int zipParallelism = 4;
+
+    // Quantidade de arquivos ZIP (ou ZIPs internos do ZIP pai) processados em paralelo
+    private int archiveParallelism = 4;
+
+    // Lê os ZIPs internos direto do stream do ZIP pai, sem pasta temporária
+    private boolean zipPaiStreaming = false;
+
+    // Jobs assíncronos: threads de execução e tamanho máximo da fila
+    private int jobThreads = 2;
+
+    private int jobQueueCapacity = 20;
+
+    // Arquivo do índice WORDER -> inspetor; vazio usa "<destBasePath>.indice-inspetores.tsv",
+    // ao lado da pasta de destino
+    private String inspectorIndexPath;
+
+    // Pasta dos uploads em partes ainda não concluídos; vazio usa a pasta temporária do sistema
+    private String chunkedUploadPath;
+
+    // Horas sem novas partes até um upload em partes ser removido; 0 desativa
+    private int chunkedUploadTtlHours = 24;
+
+    // Como as pastas das ordens são colocadas no destino
+    private PlacementMode placementMode = PlacementMode.COPY;
+
+    /**
+     * Estratégia de colocação das ordens no destino: cópia byte a byte,
+     * hard link por arquivo (com cópia quando origem e destino estão em
+     * volumes diferentes) ou movimentação da pasta.
+     */
+    public enum PlacementMode {
+        COPY,
+        HARDLINK,
+        MOVE
+    }
+
     public static class Columns {
         @NotBlank
         private String numero = "Numero";
@@ -156,4 +200,81 @@ public class OrganizadorProperties {
     public void setOverwriteExisting(boolean overwriteExisting) {
         this.overwriteExisting = overwriteExisting;
     }
+
+    public long getCachePlanilhaMaxBytes() {
+        return cachePlanilhaMaxBytes;
+    }
+    public void setCachePlanilhaMaxBytes(long cachePlanilhaMaxBytes) {
+        this.cachePlanilhaMaxBytes = cachePlanilhaMaxBytes;
+    }
+
+    public int getCopyParallelism() {
+        return copyParallelism;
+    }
+    public void setCopyParallelism(int copyParallelism) {
+        this.copyParallelism = copyParallelism;
+    }
+
+    public PlacementMode getPlacementMode() {
+        return placementMode;
+    }
+    public void setPlacementMode(PlacementMode placementMode) {
+        this.placementMode = placementMode;
+    }
+
+    public int getZipParallelism() {
+        return zipParallelism;
+    }
+    public void setZipParallelism(int zipParallelism) {
+        this.zipParallelism = zipParallelism;
+    }
+
+    public boolean isZipPaiStreaming() {
+        return zipPaiStreaming;
+    }
+    public void setZipPaiStreaming(boolean zipPaiStreaming) {
+        this.zipPaiStreaming = zipPaiStreaming;
+    }
+
+    public int getJobThreads() {
+        return jobThreads;
+    }
+    public void setJobThreads(int jobThreads) {
+        this.jobThreads = jobThreads;
+    }
+
+    public int getJobQueueCapacity() {
+        return jobQueueCapacity;
+    }
+    public void setJobQueueCapacity(int jobQueueCapacity) {
+        this.jobQueueCapacity = jobQueueCapacity;
+    }
+
+    public int getArchiveParallelism() {
+        return archiveParallelism;
+    }
+    public void setArchiveParallelism(int archiveParallelism) {
+        this.archiveParallelism = archiveParallelism;
+    }
+
+    public String getInspectorIndexPath() {
+        return inspectorIndexPath;
+    }
+    public void setInspectorIndexPath(String inspectorIndexPath) {
+        this.inspectorIndexPath = inspectorIndexPath;
+    }
+
+    public String getChunkedUploadPath() {
+        return chunkedUploadPath;
+    }
+    public void setChunkedUploadPath(String chunkedUploadPath) {
+        this.chunkedUploadPath = chunkedUploadPath;
+    }
+
+    public int getChunkedUploadTtlHours() {
+        return chunkedUploadTtlHours;
+    }
+    public void setChunkedUploadTtlHours(int chunkedUploadTtlHours) {
+        this.chunkedUploadTtlHours = chunkedUploadTtlHours;
+    }
 }
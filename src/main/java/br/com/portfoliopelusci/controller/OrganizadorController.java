@@ -1,10 +1,12 @@
 package br.com.portfoliopelusci.controller;
 
+import java.io.InputStream;
 
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import br.com.portfoliopelusci.config.OrganizadorProperties;
+import br.com.portfoliopelusci.service.ContextoExecucao;
 import br.com.portfoliopelusci.service.OrganizadorService;
 
 @RestController
@@ -52,9 +54,8 @@ public class OrganizadorController {
     @PostMapping("/run")
     public String organizarComDry(@RequestParam(defaultValue = "true") boolean dryRun) {
         try {
-            props.setDryRun(dryRun);
-            service.processar();
-            return "Processo concluído (dryRun=" + props.isDryRun() + ").";
+            service.processar(ContextoExecucao.de(props).comDryRun(dryRun));
+            return "Processo concluído (dryRun=" + dryRun + ").";
         } catch (Exception e) {
             e.printStackTrace();
             return "Erro: " + e.getMessage();
@@ -101,6 +102,27 @@ public class OrganizadorController {
         }
     }
 
+    /**
+     * Variante de {@code /upload} que recebe o ZIP como corpo da requisição
+     * ({@code application/zip} ou {@code application/octet-stream}) em vez
+     * de multipart. A extração acontece enquanto os bytes chegam, sem que o
+     * upload seja gravado antes em um arquivo temporário.
+     *
+     * @param nome nome do arquivo ZIP, usado para nomear a pasta de extração
+     * @param zip corpo da requisição com o conteúdo do ZIP
+     * @return mensagem relatando a conclusão do processamento do ZIP
+     */
+    @PostMapping(value = "/upload/stream", consumes = {"application/zip", "application/octet-stream"})
+    public String organizarZipStream(@RequestParam("nome") String nome, InputStream zip) {
+        try {
+            service.processarZip(nome, zip, ContextoExecucao.de(props));
+            return "Processo concluído (zip).";
+        } catch (Exception e) {
+            e.printStackTrace();
+            return "Erro: " + e.getMessage();
+        }
+    }
+
     /**
      * Percorre uma pasta previamente configurada em busca de arquivos ZIP e
      * processa cada um deles sequencialmente. Para cada ZIP encontrado é
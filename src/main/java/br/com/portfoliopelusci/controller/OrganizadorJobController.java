@@ -0,0 +1,132 @@
+package br.com.portfoliopelusci.controller;
+
+import br.com.portfoliopelusci.config.OrganizadorProperties;
+import br.com.portfoliopelusci.dto.JobStatusResponse;
+import br.com.portfoliopelusci.exceptions.ResourceNotFoundException;
+import br.com.portfoliopelusci.service.ContextoExecucao;
+import br.com.portfoliopelusci.service.OrganizadorJobService;
+import br.com.portfoliopelusci.service.OrganizadorService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Versão assíncrona dos endpoints de {@link OrganizadorController}. Cada
+ * chamada enfileira um job e responde imediatamente com seu id; o
+ * andamento é consultado em {@code GET /organizar/jobs/{id}}. A
+ * configuração é fixada no momento do envio, então alterações feitas
+ * depois em {@code /organizar/config} não afetam jobs já enfileirados.
+ */
+@RestController
+@RequestMapping("/organizar/jobs")
+public class OrganizadorJobController {
+
+    private final OrganizadorJobService jobs;
+    private final OrganizadorService service;
+    private final OrganizadorProperties props;
+
+    public OrganizadorJobController(OrganizadorJobService jobs, OrganizadorService service, OrganizadorProperties props) {
+        this.jobs = jobs;
+        this.service = service;
+        this.props = props;
+    }
+
+    /**
+     * Enfileira o processo de organização padrão (equivalente a
+     * {@code POST /organizar}).
+     */
+    @PostMapping
+    public ResponseEntity<JobStatusResponse> organizar() {
+        ContextoExecucao ctx = ContextoExecucao.de(props);
+        return aceito(jobs.submeter("organizar", progresso -> service.processar(ctx.comProgresso(progresso))));
+    }
+
+    /**
+     * Enfileira o processamento de um ZIP enviado via upload. O arquivo é
+     * gravado em uma pasta temporária antes de a requisição terminar e
+     * removido ao final do job, ou logo em seguida se a fila de jobs
+     * estiver cheia (resposta {@code 503}).
+     *
+     * @param zip arquivo compactado com as pastas das ordens
+     */
+    @PostMapping("/upload")
+    public ResponseEntity<JobStatusResponse> organizarZip(@RequestParam("file") MultipartFile zip) throws IOException {
+        String filename = zip.getOriginalFilename() != null
+                ? Path.of(zip.getOriginalFilename()).getFileName().toString() : "upload.zip";
+        Path tempDir = Files.createTempDirectory("upload-job");
+        Path zipPath = tempDir.resolve(filename);
+        zip.transferTo(zipPath);
+
+        ContextoExecucao ctx = ContextoExecucao.de(props);
+        try {
+            return aceito(jobs.submeter("upload", progresso -> {
+                try {
+                    service.processarZipArquivo(zipPath, ctx.comProgresso(progresso));
+                } finally {
+                    Files.deleteIfExists(zipPath);
+                    Files.deleteIfExists(tempDir);
+                }
+            }));
+        } catch (RuntimeException e) {
+            // Job não enfileirado (fila cheia): o arquivo não será usado
+            Files.deleteIfExists(zipPath);
+            Files.deleteIfExists(tempDir);
+            throw e;
+        }
+    }
+
+    /**
+     * Enfileira o processamento dos ZIPs da pasta configurada
+     * (equivalente a {@code POST /organizar/zip}).
+     */
+    @PostMapping("/zip")
+    public ResponseEntity<JobStatusResponse> organizarZipLocal() {
+        ContextoExecucao ctx = ContextoExecucao.de(props);
+        return aceito(jobs.submeter("zip", progresso -> service.processarZips(ctx.comProgresso(progresso))));
+    }
+
+    /**
+     * Enfileira o processamento de um ZIP pai. Sem {@code path}, usa o
+     * caminho configurado.
+     *
+     * @param path (opcional) caminho completo do arquivo ZIP pai
+     */
+    @PostMapping("/zip-parent")
+    public ResponseEntity<JobStatusResponse> organizarZipPai(@RequestParam(value = "path", required = false) String path) {
+        String zipPai = path != null && !path.isBlank() ? path : props.getParentZipPath();
+        ContextoExecucao ctx = ContextoExecucao.de(props);
+        return aceito(jobs.submeter("zip-parent", progresso ->
+                service.processarZipPai(zipPai, ctx.comProgresso(progresso))));
+    }
+
+    /**
+     * Enfileira a extração de todos os ZIPs da pasta informada.
+     *
+     * @param path caminho da pasta contendo os arquivos ZIP
+     */
+    @PostMapping("/extrairTodos")
+    public ResponseEntity<JobStatusResponse> extrairTodos(@RequestParam("path") String path) {
+        return aceito(jobs.submeter("extrairTodos", progresso -> service.extrairTodos(path)));
+    }
+
+    /**
+     * Consulta a situação de um job: estado, linhas processadas, bytes
+     * copiados e tempo decorrido.
+     *
+     * @param id identificador devolvido no envio
+     */
+    @GetMapping("/{id}")
+    public JobStatusResponse consultar(@PathVariable String id) {
+        return jobs.consultar(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Job não encontrado: " + id));
+    }
+
+    private static ResponseEntity<JobStatusResponse> aceito(JobStatusResponse status) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.portfoliopelusci.controller;
+
+import br.com.portfoliopelusci.config.OrganizadorProperties;
+import br.com.portfoliopelusci.dto.UploadParcialResponse;
+import br.com.portfoliopelusci.inspecao.dto.UploadZipResponse;
+import br.com.portfoliopelusci.inspecao.service.UploadInspecaoZipService;
+import br.com.portfoliopelusci.service.ContextoExecucao;
+import br.com.portfoliopelusci.service.OrganizadorService;
+import br.com.portfoliopelusci.service.UploadsParciais;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Upload de ZIPs grandes em partes, para conexões instáveis. O cliente
+ * inicia o upload informando nome e tamanho, envia as partes com
+ * {@code PUT /uploads/{id}?offset=N} e, após uma falha, consulta
+ * {@code GET /uploads/{id}} para retomar a partir dos bytes já recebidos.
+ * Com todos os bytes recebidos, o arquivo é entregue à importação de fotos
+ * ({@code /inspecoes}) ou à organização de ordens ({@code /organizar}).
+ */
+@RestController
+@RequestMapping("/uploads")
+public class UploadParcialController {
+
+    private final UploadsParciais uploads;
+    private final UploadInspecaoZipService inspecaoService;
+    private final OrganizadorService organizadorService;
+    private final OrganizadorProperties props;
+
+    public UploadParcialController(UploadsParciais uploads, UploadInspecaoZipService inspecaoService,
+                                   OrganizadorService organizadorService, OrganizadorProperties props) {
+        this.uploads = uploads;
+        this.inspecaoService = inspecaoService;
+        this.organizadorService = organizadorService;
+        this.props = props;
+    }
+
+    /**
+     * Inicia um upload em partes.
+     *
+     * @param nome nome do arquivo ZIP (para fotos, o id do inspetor)
+     * @param tamanho tamanho total do arquivo em bytes
+     */
+    @PostMapping
+    public ResponseEntity<UploadParcialResponse> iniciar(@RequestParam("nome") String nome,
+                                                         @RequestParam("tamanho") long tamanho) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(uploads.iniciar(nome, tamanho));
+    }
+
+    /**
+     * Recebe uma parte do arquivo como corpo da requisição. O offset deve
+     * ser no máximo o total já recebido; caso contrário a resposta é
+     * {@code 409} com a situação atual do upload.
+     *
+     * @param id identificador devolvido ao iniciar
+     * @param offset posição da parte no arquivo
+     * @param parte bytes da parte
+     */
+    @PutMapping(value = "/{id}", consumes = "application/octet-stream")
+    public UploadParcialResponse enviarParte(@PathVariable String id, @RequestParam("offset") long offset,
+                                             InputStream parte) throws IOException {
+        return uploads.gravarParte(id, offset, parte);
+    }
+
+    /** Situação do upload: tamanho total e bytes já recebidos. */
+    @GetMapping("/{id}")
+    public UploadParcialResponse consultar(@PathVariable String id) throws IOException {
+        return uploads.consultar(id);
+    }
+
+    /** Cancela o upload e remove as partes recebidas. */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelar(@PathVariable String id) throws IOException {
+        uploads.descartar(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Conclui o upload importando as fotos do ZIP, como em
+     * {@code POST /inspecoes/upload-zip}. Se a importação falhar o upload
+     * é mantido e pode ser concluído novamente.
+     */
+    @PostMapping("/{id}/inspecoes")
+    public ResponseEntity<UploadZipResponse> concluirInspecoes(@PathVariable String id) throws IOException {
+        Path zip = uploads.concluir(id);
+        UploadZipResponse response;
+        try (InputStream in = Files.newInputStream(zip)) {
+            response = inspecaoService.processar(zip.getFileName().toString(), in);
+        } catch (IOException | RuntimeException e) {
+            uploads.liberar(id);
+            throw e;
+        }
+        uploads.descartar(id);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Conclui o upload organizando as ordens do ZIP, como em
+     * {@code POST /organizar/upload}. Se o processamento falhar o upload é
+     * mantido e pode ser concluído novamente.
+     */
+    @PostMapping("/{id}/organizar")
+    public String concluirOrganizar(@PathVariable String id) {
+        try {
+            Path zip = uploads.concluir(id);
+            try {
+                organizadorService.processarZipArquivo(zip, ContextoExecucao.de(props));
+            } catch (IOException | RuntimeException e) {
+                uploads.liberar(id);
+                throw e;
+            }
+            uploads.descartar(id);
+            return "Processo concluído (zip).";
+        } catch (Exception e) {
+            e.printStackTrace();
+            return "Erro: " + e.getMessage();
+        }
+    }
+
+    @ExceptionHandler(UploadsParciais.OffsetInvalidoException.class)
+    public ResponseEntity<UploadParcialResponse> offsetInvalido(UploadsParciais.OffsetInvalidoException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getStatus());
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.portfoliopelusci.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(
+        name = "JobStatusResponse",
+        description = "Situação de um job assíncrono do organizador."
+)
+public record JobStatusResponse(
+        @Schema(description = "Identificador do job.", example = "3f1c2a9e-5b8d-4c61-9d7e-2f0a1b3c4d5e")
+        String id,
+        @Schema(description = "Operação executada pelo job.", example = "zip-parent")
+        String tipo,
+        @Schema(description = "Estado atual: PENDENTE, EXECUTANDO, CONCLUIDO ou ERRO.", example = "EXECUTANDO")
+        String estado,
+        @Schema(description = "Linhas da planilha já processadas.", example = "1200")
+        long linhasProcessadas,
+        @Schema(description = "Bytes já copiados para o destino.", example = "52428800")
+        long bytesCopiados,
+        @Schema(description = "Tempo decorrido desde o início da execução, em milissegundos.", example = "8450")
+        long tempoDecorridoMs,
+        @Schema(description = "Mensagem de erro quando o job falhou.")
+        String erro
+) {
+}
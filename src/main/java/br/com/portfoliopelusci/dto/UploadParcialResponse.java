@@ -0,0 +1,21 @@
+package br.com.portfoliopelusci.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(
+        name = "UploadParcialResponse",
+        description = "Situação de um upload enviado em partes."
+)
+public record UploadParcialResponse(
+        @Schema(description = "Identificador do upload.", example = "3f1c2a9e-5b8d-4c61-9d7e-2f0a1b3c4d5e")
+        String id,
+        @Schema(description = "Nome do arquivo ZIP.", example = "12345.zip")
+        String nome,
+        @Schema(description = "Tamanho total do arquivo, em bytes.", example = "2147483648")
+        long tamanho,
+        @Schema(description = "Bytes já recebidos; a próxima parte deve começar neste offset.", example = "52428800")
+        long recebidos,
+        @Schema(description = "Indica se todos os bytes já foram recebidos.", example = "false")
+        boolean completo
+) {
+}
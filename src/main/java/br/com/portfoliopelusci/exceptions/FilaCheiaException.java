@@ -0,0 +1,14 @@
+package br.com.portfoliopelusci.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class FilaCheiaException extends RuntimeException{
+	
+	private static final long serialVersionUID = 1L;
+	
+	public FilaCheiaException(String ex) {
+		super(ex);
+	}
+}
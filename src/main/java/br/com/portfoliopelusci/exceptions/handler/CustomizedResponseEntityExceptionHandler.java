@@ -12,6 +12,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import br.com.portfoliopelusci.exceptions.ExceptionResponse;
+import br.com.portfoliopelusci.exceptions.FilaCheiaException;
 import br.com.portfoliopelusci.exceptions.ResourceNotFoundException;
 
 @ControllerAdvice
@@ -41,5 +42,17 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 		
 		return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
 	}
+	
+	@ExceptionHandler(FilaCheiaException.class)
+	public final ResponseEntity<ExceptionResponse> handleFilaCheiaExceptions(
+			Exception ex, WebRequest request) {
+		
+		ExceptionResponse exceptionResponse = new ExceptionResponse(
+				new Date(),
+				ex.getMessage(),
+				request.getDescription(false));
+		
+		return new ResponseEntity<>(exceptionResponse, HttpStatus.SERVICE_UNAVAILABLE);
+	}
 
 }
@@ -0,0 +1,101 @@
+package br.com.portfoliopelusci.inspecao.config;
+
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "inspecao")
+public class InspecaoProperties {
+
+    // Pasta onde o conteúdo das fotos é gravado, endereçado pelo SHA-256
+    @NotBlank
+    private String armazenamentoPath = "fotos-inspecao";
+
+    // Fotos gravadas no banco entre cada flush/clear durante a importação
+    private int loteFotos = 50;
+
+    // Buffer reutilizado por upload na cópia das entradas do ZIP
+    private int bufferBytes = 64 * 1024;
+
+    // Limites de bytes descompactados por foto e por upload
+    private long maxBytesFoto = 30L * 1024 * 1024;
+
+    private long maxBytesUpload = 2L * 1024 * 1024 * 1024;
+
+    // Threads que calculam o hash e gravam as fotos enquanto os ZIPs são lidos,
+    // compartilhadas por todas as importações
+    private int threadsFotos = 4;
+
+    // ZIPs de fotos lidos ao mesmo tempo; as demais importações aguardam a vez
+    private int importacoesSimultaneas = 4;
+
+    // Fotos extraídas aguardando hash ou gravação no banco (limita disco e memória)
+    private int filaFotos = 16;
+
+    // ZIPs de inspetores importados ao mesmo tempo a partir de ZIPs pai, somando todas as requisições
+    private int zipsParalelos = 2;
+
+    public String getArmazenamentoPath() {
+        return armazenamentoPath;
+    }
+    public void setArmazenamentoPath(String armazenamentoPath) {
+        this.armazenamentoPath = armazenamentoPath;
+    }
+
+    public int getLoteFotos() {
+        return loteFotos;
+    }
+    public void setLoteFotos(int loteFotos) {
+        this.loteFotos = loteFotos;
+    }
+
+    public int getBufferBytes() {
+        return bufferBytes;
+    }
+    public void setBufferBytes(int bufferBytes) {
+        this.bufferBytes = bufferBytes;
+    }
+
+    public long getMaxBytesFoto() {
+        return maxBytesFoto;
+    }
+    public void setMaxBytesFoto(long maxBytesFoto) {
+        this.maxBytesFoto = maxBytesFoto;
+    }
+
+    public long getMaxBytesUpload() {
+        return maxBytesUpload;
+    }
+    public void setMaxBytesUpload(long maxBytesUpload) {
+        this.maxBytesUpload = maxBytesUpload;
+    }
+
+    public int getThreadsFotos() {
+        return threadsFotos;
+    }
+    public void setThreadsFotos(int threadsFotos) {
+        this.threadsFotos = threadsFotos;
+    }
+
+    public int getImportacoesSimultaneas() {
+        return importacoesSimultaneas;
+    }
+    public void setImportacoesSimultaneas(int importacoesSimultaneas) {
+        this.importacoesSimultaneas = importacoesSimultaneas;
+    }
+
+    public int getFilaFotos() {
+        return filaFotos;
+    }
+    public void setFilaFotos(int filaFotos) {
+        this.filaFotos = filaFotos;
+    }
+
+    public int getZipsParalelos() {
+        return zipsParalelos;
+    }
+    public void setZipsParalelos(int zipsParalelos) {
+        this.zipsParalelos = zipsParalelos;
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.portfoliopelusci.inspecao.controller;
+
+import br.com.portfoliopelusci.inspecao.dto.FotoInspecaoResumo;
+import br.com.portfoliopelusci.inspecao.dto.InspecaoResumo;
+import br.com.portfoliopelusci.inspecao.dto.PaginaResponse;
+import br.com.portfoliopelusci.inspecao.service.ConsultaFotosService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping({"/inspecoes", "/foto-inspections"})
+public class FotoInspecaoController {
+
+    private final ConsultaFotosService service;
+
+    public FotoInspecaoController(ConsultaFotosService service) {
+        this.service = service;
+    }
+
+    @Operation(
+            summary = "Baixa o conteúdo de uma foto de inspeção",
+            description = "Envia a foto direto do armazenamento em disco. Aceita requisições parciais (Range) e "
+                    + "usa o SHA-256 do conteúdo como ETag, respondendo 304 quando o If-None-Match coincide."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Conteúdo da foto."),
+            @ApiResponse(responseCode = "206", description = "Trecho solicitado via Range."),
+            @ApiResponse(responseCode = "304", description = "Conteúdo não mudou desde o ETag informado."),
+            @ApiResponse(responseCode = "404", description = "Foto não encontrada ou sem conteúdo no armazenamento.")
+    })
+    @GetMapping("/{worder}/fotos/{id}")
+    public ResponseEntity<Resource> baixarFoto(@PathVariable String worder, @PathVariable Long id) {
+        ConsultaFotosService.ArquivoFoto foto = service.buscarArquivo(worder, id);
+        MediaType tipo = foto.tipoConteudo() != null
+                ? MediaType.parseMediaType(foto.tipoConteudo()) : MediaType.APPLICATION_OCTET_STREAM;
+
+        // O Spring trata If-None-Match (304) e Range (206) a partir do ETag e do
+        // Resource, copiando o arquivo para a resposta com um buffer fixo
+        return ResponseEntity.ok()
+                .eTag(foto.hash())
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(foto.nomeArquivo(), StandardCharsets.UTF_8).build().toString())
+                .body(new FileSystemResource(foto.caminho()));
+    }
+
+    @Operation(
+            summary = "Lista as fotos de uma worder",
+            description = "Devolve apenas os metadados das fotos, em ordem de id. Para a próxima página, envie em "
+                    + "'depoisDe' o valor de 'proximo' da resposta anterior."
+    )
+    @GetMapping("/{worder}/fotos")
+    public PaginaResponse<FotoInspecaoResumo> listarFotosPorWorder(
+            @PathVariable String worder,
+            @RequestParam(value = "depoisDe", required = false) Long depoisDe,
+            @RequestParam(value = "limite", defaultValue = "100") int limite) {
+        return service.listarFotosPorWorder(worder, depoisDe, limite);
+    }
+
+    @Operation(
+            summary = "Lista as inspeções de um inspetor",
+            description = "Paginação por id, como na listagem de fotos."
+    )
+    @GetMapping("/inspetores/{inspetorId}")
+    public PaginaResponse<InspecaoResumo> listarInspecoes(
+            @PathVariable String inspetorId,
+            @RequestParam(value = "depoisDe", required = false) Long depoisDe,
+            @RequestParam(value = "limite", defaultValue = "100") int limite) {
+        return service.listarInspecoes(inspetorId, depoisDe, limite);
+    }
+
+    @Operation(
+            summary = "Lista as fotos de todas as inspeções de um inspetor",
+            description = "Devolve apenas os metadados das fotos, em ordem de id, paginados como na listagem por worder."
+    )
+    @GetMapping("/inspetores/{inspetorId}/fotos")
+    public PaginaResponse<FotoInspecaoResumo> listarFotosPorInspetor(
+            @PathVariable String inspetorId,
+            @RequestParam(value = "depoisDe", required = false) Long depoisDe,
+            @RequestParam(value = "limite", defaultValue = "100") int limite) {
+        return service.listarFotosPorInspetor(inspetorId, depoisDe, limite);
+    }
+}
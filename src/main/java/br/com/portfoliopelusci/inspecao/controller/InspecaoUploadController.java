@@ -1,8 +1,11 @@
 package br.com.portfoliopelusci.inspecao.controller;
 
+import br.com.portfoliopelusci.inspecao.dto.ImportacaoZipInternoResponse;
 import br.com.portfoliopelusci.inspecao.dto.UploadZipResponse;
+import br.com.portfoliopelusci.inspecao.service.ImportacaoZipPaiService;
 import br.com.portfoliopelusci.inspecao.service.UploadInspecaoZipService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,20 +19,26 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping({"/inspecoes", "/foto-inspections"})
 public class InspecaoUploadController {
 
     private final UploadInspecaoZipService service;
+    private final ImportacaoZipPaiService zipPaiService;
 
-    public InspecaoUploadController(UploadInspecaoZipService service) {
+    public InspecaoUploadController(UploadInspecaoZipService service, ImportacaoZipPaiService zipPaiService) {
         this.service = service;
+        this.zipPaiService = zipPaiService;
     }
 
     @Operation(
             summary = "Importa ZIP de fotos de inspeção",
-            description = "Recebe um arquivo ZIP, processa as fotos por inspeção e retorna um resumo da importação."
+            description = "Recebe um arquivo ZIP, processa as fotos por inspeção e retorna um resumo da importação. "
+                    + "O id do inspetor é a parte do nome do ZIP depois do primeiro '-' "
+                    + "(\"20250806-JOHN.zip\" -> \"John\"), a mesma regra do ZIP pai e das pastas do organizador."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -48,4 +57,85 @@ public class InspecaoUploadController {
         UploadZipResponse response = service.processar(file);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
+
+    @Operation(
+            summary = "Importa ZIP de fotos de inspeção enviado como corpo da requisição",
+            description = "Recebe o ZIP direto no corpo (application/zip), sem multipart, e importa as fotos "
+                    + "enquanto o upload chega, sem gravá-lo antes em arquivo temporário. O nome do ZIP "
+                    + "identifica o inspetor, como no upload multipart."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "ZIP processado com sucesso.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UploadZipResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Arquivo inválido para processamento."),
+            @ApiResponse(responseCode = "500", description = "Erro inesperado ao processar ZIP.")
+    })
+    @PostMapping(value = {"/upload-zip/stream", "/import-zip/stream"},
+            consumes = {"application/zip", "application/octet-stream"})
+    public ResponseEntity<UploadZipResponse> uploadZipStream(@RequestParam("nome") String nome,
+                                                             InputStream zip) throws IOException {
+        UploadZipResponse response = service.processar(nome, zip);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @Operation(
+            summary = "Importa um ZIP pai com um ZIP de fotos por inspetor",
+            description = "Recebe um ZIP contendo um ZIP por inspetor e importa os ZIPs internos em paralelo, "
+                    + "cada um em sua própria transação. O id do inspetor é a parte do nome do ZIP interno "
+                    + "depois do primeiro '-' (\"20250806-JOHN.zip\" -> \"John\"), como nas pastas do organizador."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Todos os ZIPs importados; um resultado por ZIP interno, na ordem do ZIP pai.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ImportacaoZipInternoResponse.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "207",
+                    description = "Parte dos ZIPs falhou; os demais foram importados. Os itens com falha trazem o erro.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ImportacaoZipInternoResponse.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Arquivo inválido para processamento."),
+            @ApiResponse(responseCode = "500", description = "Erro inesperado ao processar ZIP.")
+    })
+    @PostMapping({"/upload-zip-pai", "/import-zip-parent"})
+    public ResponseEntity<List<ImportacaoZipInternoResponse>> uploadZipPai(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo ZIP obrigatório.");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return resultadoZipPai(zipPaiService.processar(in));
+        }
+    }
+
+    @Operation(
+            summary = "Importa um ZIP pai enviado como corpo da requisição",
+            description = "Igual ao upload do ZIP pai, mas o ZIP vem direto no corpo (application/zip) e é lido "
+                    + "enquanto chega, sem ser gravado antes em arquivo temporário."
+    )
+    @PostMapping(value = {"/upload-zip-pai/stream", "/import-zip-parent/stream"},
+            consumes = {"application/zip", "application/octet-stream"})
+    public ResponseEntity<List<ImportacaoZipInternoResponse>> uploadZipPaiStream(InputStream zipPai)
+            throws IOException {
+        return resultadoZipPai(zipPaiService.processar(zipPai));
+    }
+
+    private static ResponseEntity<List<ImportacaoZipInternoResponse>> resultadoZipPai(
+            List<ImportacaoZipInternoResponse> resultados) {
+        boolean falhou = resultados.stream().anyMatch(r -> r.erro() != null);
+        return ResponseEntity.status(falhou ? HttpStatus.MULTI_STATUS : HttpStatus.CREATED).body(resultados);
+    }
 }
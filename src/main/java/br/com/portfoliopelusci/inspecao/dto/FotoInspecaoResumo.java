@@ -0,0 +1,23 @@
+package br.com.portfoliopelusci.inspecao.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(
+        name = "FotoInspecaoResumo",
+        description = "Metadados de uma foto de inspeção, sem o conteúdo."
+)
+public record FotoInspecaoResumo(
+        @Schema(description = "Identificador da foto.", example = "1050")
+        Long id,
+        @Schema(description = "Worder da inspeção a que a foto pertence.", example = "1001")
+        String worder,
+        @Schema(description = "Nome do arquivo no ZIP importado.", example = "foto1.jpg")
+        String nomeArquivo,
+        @Schema(description = "Tipo de conteúdo da foto.", example = "image/jpeg")
+        String tipoConteudo,
+        @Schema(description = "Tamanho do conteúdo em bytes; vazio para fotos antigas.", example = "245760")
+        Long tamanho,
+        @Schema(description = "SHA-256 do conteúdo, usado como ETag no download.")
+        String hash
+) {
+}
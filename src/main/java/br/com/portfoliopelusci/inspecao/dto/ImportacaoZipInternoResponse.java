@@ -0,0 +1,26 @@
+package br.com.portfoliopelusci.inspecao.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(
+        name = "ImportacaoZipInternoResponse",
+        description = "Resultado da importação de um ZIP interno de um ZIP pai."
+)
+public record ImportacaoZipInternoResponse(
+        @Schema(description = "Nome do ZIP interno no ZIP pai; vazio quando o próprio ZIP pai não pôde ser lido.",
+                example = "20250806-JOHN.zip")
+        String arquivo,
+        @Schema(description = "Resumo da importação; vazio se ela falhou.")
+        UploadZipResponse resumo,
+        @Schema(description = "Motivo da falha; vazio se o ZIP foi importado.", example = "O ZIP excede o limite de 2147483648 bytes descompactados.")
+        String erro
+) {
+
+    public static ImportacaoZipInternoResponse sucesso(String arquivo, UploadZipResponse resumo) {
+        return new ImportacaoZipInternoResponse(arquivo, resumo, null);
+    }
+
+    public static ImportacaoZipInternoResponse falha(String arquivo, String erro) {
+        return new ImportacaoZipInternoResponse(arquivo, null, erro);
+    }
+}
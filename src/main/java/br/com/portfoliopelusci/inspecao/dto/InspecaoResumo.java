@@ -0,0 +1,17 @@
+package br.com.portfoliopelusci.inspecao.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(
+        name = "InspecaoResumo",
+        description = "Inspeção de um inspetor, sem as fotos."
+)
+public record InspecaoResumo(
+        @Schema(description = "Identificador da inspeção.", example = "42")
+        Long id,
+        @Schema(description = "Worder da inspeção.", example = "1001")
+        String worder,
+        @Schema(description = "Identificador do inspetor.", example = "John")
+        String inspetorId
+) {
+}
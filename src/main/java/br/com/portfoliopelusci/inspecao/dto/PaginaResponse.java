@@ -0,0 +1,17 @@
+package br.com.portfoliopelusci.inspecao.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(
+        name = "PaginaResponse",
+        description = "Página de uma listagem paginada por chave (keyset)."
+)
+public record PaginaResponse<T>(
+        @Schema(description = "Itens da página, em ordem crescente de id.")
+        List<T> itens,
+        @Schema(description = "Valor a enviar em 'depoisDe' para obter a próxima página; vazio na última.", example = "1150")
+        Long proximo
+) {
+}
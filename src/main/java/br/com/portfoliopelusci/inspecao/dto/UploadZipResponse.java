@@ -6,12 +6,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
         name = "UploadZipResponse",
         description = "Resumo do processamento do ZIP com fotos de inspeção."
 )
-public record UploadZipResponse(String inspetorId, int inspecoesAfetadas, int fotosSalvas) {
+public record UploadZipResponse(String inspetorId, int inspecoesAfetadas, int fotosSalvas, int fotosDuplicadas) {
 
     public UploadZipResponse(
             @Schema(
-                    description = "Identificador do inspetor extraído do nome do arquivo ZIP.",
-                    example = "INSP-001"
+                    description = "Identificador do inspetor extraído do nome do arquivo ZIP: a parte depois do primeiro '-', "
+                            + "com só a primeira letra maiúscula (\"20250806-JOHN.zip\" -> \"John\").",
+                    example = "John"
             ) String inspetorId,
             @Schema(
                     description = "Quantidade de inspeções (worders) criadas ou atualizadas.",
@@ -20,10 +21,15 @@ public record UploadZipResponse(String inspetorId, int inspecoesAfetadas, int fo
             @Schema(
                     description = "Quantidade total de fotos salvas no processamento.",
                     example = "18"
-            ) int fotosSalvas
+            ) int fotosSalvas,
+            @Schema(
+                    description = "Quantidade de fotos ignoradas por já existirem na inspeção (mesmo conteúdo).",
+                    example = "4"
+            ) int fotosDuplicadas
     ) {
         this.inspetorId = inspetorId;
         this.inspecoesAfetadas = inspecoesAfetadas;
         this.fotosSalvas = fotosSalvas;
+        this.fotosDuplicadas = fotosDuplicadas;
     }
 }
@@ -3,11 +3,24 @@ package br.com.portfoliopelusci.inspecao.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "foto_inspecao")
+@Table(name = "foto_inspecao",
+        uniqueConstraints = @UniqueConstraint(name = "uk_foto_inspecao_inspecao_hash", columnNames = {"inspecao_id", "hash"}),
+        indexes = {
+                @Index(name = "idx_foto_inspecao_inspecao_id", columnList = "inspecao_id, id"),
+                // Listagens por inspetor e por worder: filtro e cursor no mesmo índice
+                @Index(name = "idx_foto_inspecao_inspetor_id", columnList = "inspetor_id, id"),
+                @Index(name = "idx_foto_inspecao_worder", columnList = "worder, id")
+        })
 public class FotoInspecao {
 
+    // Ids reservados em blocos (pooled-lo, ver application.yml) para que os
+    // inserts das fotos sigam em lotes JDBC; com IDENTITY cada insert iria
+    // sozinho ao banco. Instalações existentes: db/iniciar-gerador-id-foto-inspecao.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "foto_inspecao_gen")
+    @TableGenerator(name = "foto_inspecao_gen", table = "gerador_id",
+            pkColumnName = "nome", valueColumnName = "proximo", pkColumnValue = "foto_inspecao",
+            allocationSize = 50)
     private Long id;
 
     @Column(name = "nome_arquivo", nullable = false)
@@ -16,25 +29,52 @@ public class FotoInspecao {
     @Column(name = "tipo_conteudo")
     private String tipoConteudo;
 
+    // SHA-256 do conteúdo gravado em ArmazenamentoFotos
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "tamanho")
+    private Long tamanho;
+
+    // Conteúdo de fotos importadas antes do armazenamento em disco; a coluna
+    // passou a aceitar NULL em db/conteudo-opcional-foto-inspecao.sql
     @Lob
     @Basic(fetch = FetchType.LAZY)
-    @Column(name = "conteudo", nullable = false, columnDefinition = "LONGBLOB")
+    @Column(name = "conteudo", columnDefinition = "LONGBLOB")
     private byte[] conteudo;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "inspecao_id", nullable = false)
     private Inspecao inspecao;
 
+    // Cópias da worder e do inspetor da inspeção (que não mudam depois de
+    // criada), para que as consultas não dependam de um join com inspecao.
+    // Fotos antigas: db/preencher-colunas-listagem-foto-inspecao.sql
+    @Column(name = "worder", length = 100)
+    private String worder;
+
+    @Column(name = "inspetor_id", length = 100)
+    private String inspetorId;
+
     protected FotoInspecao() {
     }
 
-    public FotoInspecao(String nomeArquivo, String tipoConteudo, byte[] conteudo) {
+    /**
+     * Cria a foto já associada à inspeção, sem passar pela coleção
+     * {@code Inspecao.fotos}: basta uma referência (ou proxy) da inspeção,
+     * e as fotos anteriores não são carregadas.
+     */
+    public FotoInspecao(Inspecao inspecao, String nomeArquivo, String tipoConteudo, String hash, long tamanho) {
+        setInspecao(inspecao);
         this.nomeArquivo = nomeArquivo;
         this.tipoConteudo = tipoConteudo;
-        this.conteudo = conteudo;
+        this.hash = hash;
+        this.tamanho = tamanho;
     }
 
     void setInspecao(Inspecao inspecao) {
         this.inspecao = inspecao;
+        this.worder = inspecao.getWorder();
+        this.inspetorId = inspecao.getInspetor().getId();
     }
 }
@@ -7,7 +7,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "inspecao",
-        uniqueConstraints = @UniqueConstraint(name = "uk_inspecao_inspetor_worder", columnNames = {"inspetor_id", "worder"}))
+        uniqueConstraints = @UniqueConstraint(name = "uk_inspecao_inspetor_worder", columnNames = {"inspetor_id", "worder"}),
+        indexes = {
+                // Listagens paginadas por id dentro do inspetor e busca por worder
+                @Index(name = "idx_inspecao_inspetor_id", columnList = "inspetor_id, id"),
+                @Index(name = "idx_inspecao_worder", columnList = "worder")
+        })
 public class Inspecao {
 
     @Id
@@ -32,6 +37,11 @@ public class Inspecao {
         this.inspetor = inspetor;
     }
 
+    /**
+     * Adiciona a foto à coleção, o que carrega as fotos já gravadas. Em
+     * importações, prefira criar a {@link FotoInspecao} já com a inspeção
+     * e gravá-la diretamente.
+     */
     public void adicionarFoto(FotoInspecao foto) {
         fotos.add(foto);
         foto.setInspecao(this);
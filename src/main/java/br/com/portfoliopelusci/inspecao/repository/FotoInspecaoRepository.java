@@ -1,7 +1,60 @@
 package br.com.portfoliopelusci.inspecao.repository;
 
+import br.com.portfoliopelusci.inspecao.dto.FotoInspecaoResumo;
 import br.com.portfoliopelusci.inspecao.entity.FotoInspecao;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface FotoInspecaoRepository extends JpaRepository<FotoInspecao, Long> {
+
+    /** Hash de uma foto já gravada, com a worder da inspeção a que pertence. */
+    interface HashFoto {
+        String getWorder();
+
+        String getHash();
+    }
+
+    /**
+     * Fotos das inspeções do inspetor com id maior que {@code depoisDe}, em
+     * ordem de id. Só os metadados são selecionados, nunca o conteúdo. O
+     * filtro usa a cópia do inspetor em foto_inspecao, então a página é lida
+     * direto do índice {@code (inspetor_id, id)}.
+     */
+    @Query("select new br.com.portfoliopelusci.inspecao.dto.FotoInspecaoResumo("
+            + "f.id, f.worder, f.nomeArquivo, f.tipoConteudo, f.tamanho, f.hash) "
+            + "from FotoInspecao f "
+            + "where f.inspetorId = :inspetorId and f.id > :depoisDe order by f.id")
+    List<FotoInspecaoResumo> listarPorInspetor(@Param("inspetorId") String inspetorId,
+                                               @Param("depoisDe") long depoisDe, Pageable pagina);
+
+    /** Como {@link #listarPorInspetor}, pelo índice {@code (worder, id)}. */
+    @Query("select new br.com.portfoliopelusci.inspecao.dto.FotoInspecaoResumo("
+            + "f.id, f.worder, f.nomeArquivo, f.tipoConteudo, f.tamanho, f.hash) "
+            + "from FotoInspecao f "
+            + "where f.worder = :worder and f.id > :depoisDe order by f.id")
+    List<FotoInspecaoResumo> listarPorWorder(@Param("worder") String worder,
+                                             @Param("depoisDe") long depoisDe, Pageable pagina);
+
+    /** Dados necessários para servir o conteúdo de uma foto, sem o blob legado. */
+    interface ArquivoFoto {
+        String getNomeArquivo();
+
+        String getTipoConteudo();
+
+        String getHash();
+    }
+
+    @Query("select f.nomeArquivo as nomeArquivo, f.tipoConteudo as tipoConteudo, f.hash as hash "
+            + "from FotoInspecao f where f.id = :id and f.worder = :worder")
+    Optional<ArquivoFoto> findArquivoByIdAndWorder(@Param("id") Long id, @Param("worder") String worder);
+
+    /** Hashes das fotos do inspetor, pelo índice {@code (inspetor_id, id)}, sem join com inspecao. */
+    @Query("select f.worder as worder, f.hash as hash from FotoInspecao f "
+            + "where f.inspetorId = :inspetorId and f.hash is not null")
+    List<HashFoto> findHashesByInspetorId(@Param("inspetorId") String inspetorId);
 }
@@ -1,11 +1,24 @@
 package br.com.portfoliopelusci.inspecao.repository;
 
+import br.com.portfoliopelusci.inspecao.dto.InspecaoResumo;
 import br.com.portfoliopelusci.inspecao.entity.Inspecao;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface InspecaoRepository extends JpaRepository<Inspecao, Long> {
 
     Optional<Inspecao> findByInspetorIdAndWorder(String inspetorId, String worder);
+
+    List<Inspecao> findByInspetorId(String inspetorId);
+
+    /** Inspeções do inspetor com id maior que {@code depoisDe}, sem carregar as fotos. */
+    @Query("select new br.com.portfoliopelusci.inspecao.dto.InspecaoResumo(i.id, i.worder, i.inspetor.id) "
+            + "from Inspecao i where i.inspetor.id = :inspetorId and i.id > :depoisDe order by i.id")
+    List<InspecaoResumo> listarPorInspetor(@Param("inspetorId") String inspetorId,
+                                           @Param("depoisDe") long depoisDe, Pageable pagina);
 }
@@ -0,0 +1,229 @@
+package br.com.portfoliopelusci.inspecao.service;
+
+import br.com.portfoliopelusci.inspecao.config.InspecaoProperties;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Armazena o conteúdo das fotos no sistema de arquivos, endereçado pelo
+ * SHA-256 dos bytes. Cada arquivo fica em {@code ab/cd/<hash>}, usando os
+ * dois primeiros pares do hash como subpastas para não concentrar milhões
+ * de arquivos em um único diretório. Conteúdos iguais são gravados uma
+ * única vez.
+ */
+@Service
+public class ArmazenamentoFotos {
+
+    private static final Pattern HASH_VALIDO = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path raiz;
+
+    /**
+     * Arquivos criados por gravações ainda não confirmadas, com a indicação
+     * de que outra gravação encontrou o mesmo conteúdo e passou a usá-lo.
+     */
+    private final Map<String, Boolean> naoConfirmadas = new ConcurrentHashMap<>();
+
+    /** Resultado da gravação: hash SHA-256 em hexadecimal e tamanho em bytes. */
+    public record FotoArmazenada(String hash, long tamanho) {
+    }
+
+    /** Conteúdo maior que o limite informado na gravação. */
+    public static class LimiteExcedidoException extends IllegalArgumentException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long limiteBytes;
+
+        public LimiteExcedidoException(long limiteBytes) {
+            super("Conteúdo excede o limite de " + limiteBytes + " bytes.");
+            this.limiteBytes = limiteBytes;
+        }
+
+        public long getLimiteBytes() {
+            return limiteBytes;
+        }
+    }
+
+    public ArmazenamentoFotos(InspecaoProperties props) {
+        this.raiz = Path.of(props.getArmazenamentoPath());
+    }
+
+    /**
+     * Primeira etapa da gravação em duas fases: copia o conteúdo de
+     * {@code in} para um arquivo temporário, sem calcular o hash, para que a
+     * leitura do ZIP não espere pelo cálculo. O stream não é fechado, então
+     * pode ser a entrada corrente de um {@link java.util.zip.ZipInputStream}. O arquivo devolvido deve ser
+     * passado a {@link #armazenar(Path, byte[])}.
+     *
+     * @throws LimiteExcedidoException se o conteúdo exceder o limite; nada é gravado
+     */
+    public Path gravarTemporario(InputStream in, byte[] buffer, long limiteBytes) throws IOException {
+        Path tmpDir = raiz.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        Path temp = Files.createTempFile(tmpDir, "foto", ".tmp");
+        boolean gravado = false;
+        try {
+            long tamanho = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int lidos;
+                while ((lidos = in.read(buffer)) != -1) {
+                    if (tamanho + lidos > limiteBytes) {
+                        throw new LimiteExcedidoException(limiteBytes);
+                    }
+                    out.write(buffer, 0, lidos);
+                    tamanho += lidos;
+                }
+            }
+            gravado = true;
+            return temp;
+        } finally {
+            if (!gravado) Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Segunda etapa: calcula o hash do arquivo gerado por
+     * {@link #gravarTemporario} e o move para o local definitivo. O
+     * temporário é removido em qualquer caso.
+     */
+    public FotoArmazenada armazenar(Path temp, byte[] buffer) throws IOException {
+        return armazenar(temp, buffer, null);
+    }
+
+    /**
+     * Como {@link #armazenar(Path, byte[])}, para gravações que ainda podem
+     * ser desfeitas: o hash de cada arquivo criado por esta chamada entra em
+     * {@code novas}, e o conjunto deve ser passado depois a
+     * {@link #confirmar} ou a {@link #descartar}.
+     */
+    public FotoArmazenada armazenar(Path temp, byte[] buffer, Set<String> novas) throws IOException {
+        try {
+            MessageDigest digest = novoDigest();
+            long tamanho = 0;
+            try (InputStream in = Files.newInputStream(temp)) {
+                int lidos;
+                while ((lidos = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, lidos);
+                    tamanho += lidos;
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            if (moverSeAusente(temp, hash, novas != null) && novas != null) {
+                novas.add(hash);
+            }
+            return new FotoArmazenada(hash, tamanho);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * As fotos gravadas passaram a ser referenciadas no banco e não serão
+     * mais descartadas.
+     */
+    public void confirmar(Collection<String> novas) {
+        novas.forEach(naoConfirmadas::remove);
+    }
+
+    /**
+     * Apaga os arquivos criados por uma gravação desfeita (por exemplo,
+     * uma importação cuja transação voltou atrás), menos os que outra
+     * gravação desta instância passou a usar enquanto isso. Arquivos
+     * mantidos assim, ou deixados por uma instância encerrada antes do
+     * descarte, não têm referência no banco e podem ser removidos por uma
+     * varredura que compare {@code ab/cd/<hash>} com {@code foto_inspecao.hash}.
+     */
+    public void descartar(Collection<String> novas) {
+        for (String hash : novas) {
+            naoConfirmadas.computeIfPresent(hash, (h, compartilhada) -> {
+                if (!compartilhada) {
+                    try {
+                        Files.deleteIfExists(caminho(h));
+                    } catch (IOException e) {
+                        // Fica para a varredura
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
+    /** Caminho do arquivo correspondente ao hash. */
+    public Path caminho(String hash) {
+        if (hash == null || !HASH_VALIDO.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Hash de foto inválido: " + hash);
+        }
+        return raiz.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /**
+     * Move o temporário para {@code ab/cd/<hash>} se o conteúdo ainda não
+     * estiver gravado. A verificação e a movimentação ocorrem sob o mesmo
+     * lock do hash em {@link #naoConfirmadas}, de modo que quem encontra um
+     * arquivo ainda não confirmado o marca como compartilhado antes que o
+     * criador possa descartá-lo.
+     *
+     * @return {@code true} se o arquivo foi criado por esta chamada
+     */
+    private boolean moverSeAusente(Path temp, String hash, boolean rastrear) throws IOException {
+        Path destino = caminho(hash);
+        boolean[] criado = new boolean[1];
+        IOException[] falha = new IOException[1];
+        naoConfirmadas.compute(hash, (h, compartilhada) -> {
+            if (Files.exists(destino)) {
+                return compartilhada != null ? Boolean.TRUE : null;
+            }
+            try {
+                Files.createDirectories(destino.getParent());
+                mover(temp, destino);
+                criado[0] = true;
+                return rastrear ? Boolean.FALSE : null;
+            } catch (IOException e) {
+                falha[0] = e;
+                return compartilhada;
+            }
+        });
+        if (falha[0] != null) throw falha[0];
+        return criado[0];
+    }
+
+    private static void mover(Path temp, Path destino) throws IOException {
+        try {
+            Files.move(temp, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temp, destino);
+            } catch (FileAlreadyExistsException jaGravado) {
+                // Outro upload gravou o mesmo conteúdo ao mesmo tempo
+            }
+        } catch (FileAlreadyExistsException jaGravado) {
+            // Outro upload gravou o mesmo conteúdo ao mesmo tempo
+        }
+    }
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível.", e);
+        }
+    }
+}
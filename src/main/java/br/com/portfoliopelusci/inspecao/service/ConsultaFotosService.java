@@ -0,0 +1,108 @@
+package br.com.portfoliopelusci.inspecao.service;
+
+import br.com.portfoliopelusci.exceptions.ResourceNotFoundException;
+import br.com.portfoliopelusci.inspecao.dto.FotoInspecaoResumo;
+import br.com.portfoliopelusci.inspecao.dto.InspecaoResumo;
+import br.com.portfoliopelusci.inspecao.dto.PaginaResponse;
+import br.com.portfoliopelusci.inspecao.repository.FotoInspecaoRepository;
+import br.com.portfoliopelusci.inspecao.repository.InspecaoRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Consultas de inspeções e fotos. Apenas os metadados vêm do banco, por
+ * projeções que nunca selecionam o conteúdo; o conteúdo é servido a partir
+ * de {@link ArmazenamentoFotos}, sem carregar a imagem em memória.
+ * <p>
+ * As listagens são paginadas por chave: cada página devolve o id a partir
+ * do qual a próxima começa. O filtro (inspetor ou worder) e o id ficam no
+ * mesmo índice da tabela consultada, então cada página é uma leitura de um
+ * intervalo do índice, sem OFFSET e sem join, de no máximo {@code limite}
+ * entradas. Fotos gravadas antes de foto_inspecao ter worder e inspetor
+ * são preenchidas pelo script {@code db/preencher-colunas-listagem-foto-inspecao.sql}.
+ */
+@Service
+public class ConsultaFotosService {
+
+    /** Tamanho máximo de uma página. */
+    public static final int LIMITE_MAXIMO = 1000;
+
+    private final InspecaoRepository inspecaoRepository;
+    private final FotoInspecaoRepository fotoInspecaoRepository;
+    private final ArmazenamentoFotos armazenamento;
+
+    public ConsultaFotosService(InspecaoRepository inspecaoRepository, FotoInspecaoRepository fotoInspecaoRepository,
+                                ArmazenamentoFotos armazenamento) {
+        this.inspecaoRepository = inspecaoRepository;
+        this.fotoInspecaoRepository = fotoInspecaoRepository;
+        this.armazenamento = armazenamento;
+    }
+
+    /** Inspeções do inspetor, a partir do id {@code depoisDe} (exclusivo). */
+    public PaginaResponse<InspecaoResumo> listarInspecoes(String inspetorId, Long depoisDe, int limite) {
+        int tamanho = tamanhoPagina(limite);
+        return pagina(inspecaoRepository.listarPorInspetor(inspetorId, inicio(depoisDe), PageRequest.ofSize(tamanho)),
+                tamanho, InspecaoResumo::id);
+    }
+
+    /** Fotos de todas as inspeções do inspetor, a partir do id {@code depoisDe} (exclusivo). */
+    public PaginaResponse<FotoInspecaoResumo> listarFotosPorInspetor(String inspetorId, Long depoisDe, int limite) {
+        int tamanho = tamanhoPagina(limite);
+        return pagina(fotoInspecaoRepository.listarPorInspetor(inspetorId, inicio(depoisDe), PageRequest.ofSize(tamanho)),
+                tamanho, FotoInspecaoResumo::id);
+    }
+
+    /** Fotos das inspeções da worder, a partir do id {@code depoisDe} (exclusivo). */
+    public PaginaResponse<FotoInspecaoResumo> listarFotosPorWorder(String worder, Long depoisDe, int limite) {
+        int tamanho = tamanhoPagina(limite);
+        return pagina(fotoInspecaoRepository.listarPorWorder(worder, inicio(depoisDe), PageRequest.ofSize(tamanho)),
+                tamanho, FotoInspecaoResumo::id);
+    }
+
+    /** Foto pronta para download: metadados e arquivo no armazenamento. */
+    public record ArquivoFoto(String nomeArquivo, String tipoConteudo, String hash, Path caminho) {
+    }
+
+    /**
+     * Localiza o arquivo da foto {@code id} da inspeção {@code worder}.
+     * Fotos importadas antes do armazenamento em disco (sem hash) não são
+     * servidas.
+     *
+     * @throws ResourceNotFoundException se a foto não existir ou não tiver
+     *                                   conteúdo no armazenamento
+     */
+    public ArquivoFoto buscarArquivo(String worder, Long id) {
+        FotoInspecaoRepository.ArquivoFoto foto = fotoInspecaoRepository.findArquivoByIdAndWorder(id, worder)
+                .orElseThrow(() -> new ResourceNotFoundException("Foto não encontrada: " + worder + "/" + id));
+        if (foto.getHash() == null) {
+            throw new ResourceNotFoundException("Foto " + id + " sem conteúdo no armazenamento.");
+        }
+        Path caminho = armazenamento.caminho(foto.getHash());
+        if (!Files.exists(caminho)) {
+            throw new ResourceNotFoundException("Conteúdo da foto " + id + " não encontrado no armazenamento.");
+        }
+        return new ArquivoFoto(foto.getNomeArquivo(), foto.getTipoConteudo(), foto.getHash(), caminho);
+    }
+
+    private static int tamanhoPagina(int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite da página deve ser maior que zero.");
+        }
+        return Math.min(limite, LIMITE_MAXIMO);
+    }
+
+    private static long inicio(Long depoisDe) {
+        return depoisDe != null ? depoisDe : 0L;
+    }
+
+    /** Monta a página; só há próxima quando a página veio cheia. */
+    private static <T> PaginaResponse<T> pagina(List<T> itens, int tamanho, Function<T, Long> id) {
+        Long proximo = itens.size() == tamanho ? id.apply(itens.get(itens.size() - 1)) : null;
+        return new PaginaResponse<>(itens, proximo);
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.portfoliopelusci.inspecao.service;
+
+import br.com.portfoliopelusci.inspecao.config.InspecaoProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pools de threads da importação de fotos, compartilhados por todas as
+ * requisições. Os ZIPs internos de um ZIP pai, a leitura dos ZIPs e o
+ * cálculo de hash usam pools próprios, e cada nível só envia tarefas ao
+ * seguinte, de modo que o total de threads fica limitado a
+ * {@code zipsParalelos + importacoesSimultaneas + threadsFotos},
+ * independentemente de quantos uploads estejam em andamento; o excedente
+ * aguarda na fila de cada pool. Os tamanhos são lidos na inicialização.
+ *
+ * <p>Cada importação obtém uma vaga em {@link #vagasImportacao()} antes de
+ * abrir a transação, então a leitura nunca espera na fila do pool de
+ * leitura segurando uma conexão do banco.</p>
+ */
+@Component
+public class ExecutoresInspecao {
+
+    private final ExecutorService zipsPai;
+    private final ExecutorService leitura;
+    private final ExecutorService gravacao;
+    private final int threadsGravacao;
+    private final Semaphore vagasImportacao;
+
+    public ExecutoresInspecao(InspecaoProperties props) {
+        this.threadsGravacao = Math.max(1, props.getThreadsFotos());
+        this.zipsPai = criar("importacao-zip-pai", props.getZipsParalelos());
+        this.leitura = criar("importacao-fotos-leitor", props.getImportacoesSimultaneas());
+        this.vagasImportacao = new Semaphore(Math.max(1, props.getImportacoesSimultaneas()), true);
+        this.gravacao = criar("importacao-fotos-gravador", threadsGravacao);
+    }
+
+    /** ZIPs internos de ZIPs pai importados ao mesmo tempo. */
+    ExecutorService zipsPai() {
+        return zipsPai;
+    }
+
+    /** Leitura dos ZIPs: uma tarefa por importação em andamento. */
+    ExecutorService leitura() {
+        return leitura;
+    }
+
+    /** Vagas de importação, uma por thread do pool de leitura. */
+    Semaphore vagasImportacao() {
+        return vagasImportacao;
+    }
+
+    /** Hash e gravação das fotos extraídas, de todas as importações. */
+    ExecutorService gravacao() {
+        return gravacao;
+    }
+
+    /** Quantidade de threads do pool de gravação. */
+    int threadsGravacao() {
+        return threadsGravacao;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        encerrar(zipsPai);
+        encerrar(leitura);
+        encerrar(gravacao);
+    }
+
+    /** Cancela também as tarefas que não começaram, para que ninguém fique esperando por elas. */
+    private static void encerrar(ExecutorService executor) {
+        for (Runnable pendente : executor.shutdownNow()) {
+            if (pendente instanceof Future<?> future) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static ExecutorService criar(String nome, int threads) {
+        int tamanho = Math.max(1, threads);
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(tamanho, tamanho, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, nome + "-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        // Threads ociosas são liberadas; o pool é recriado sob demanda
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
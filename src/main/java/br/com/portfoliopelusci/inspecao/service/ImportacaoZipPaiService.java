@@ -0,0 +1,171 @@
+package br.com.portfoliopelusci.inspecao.service;
+
+import br.com.portfoliopelusci.inspecao.config.InspecaoProperties;
+import br.com.portfoliopelusci.inspecao.dto.ImportacaoZipInternoResponse;
+import br.com.portfoliopelusci.inspecao.dto.UploadZipResponse;
+import br.com.portfoliopelusci.service.NomesZipPai;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Importação em lote de um ZIP pai com um ZIP por inspetor, no mesmo
+ * formato usado por {@code OrganizadorService.processarZipPai}. O ZIP pai
+ * é lido como stream; cada ZIP interno é gravado em um temporário e
+ * importado por {@link UploadInspecaoZipService} em paralelo com a leitura
+ * dos seguintes, cada um em sua própria transação, no pool compartilhado de
+ * {@link ExecutoresInspecao}. ZIPs internos do mesmo inspetor (por exemplo
+ * {@code 20250806-JOHN.zip} e {@code 20250807-JOHN.zip}) são importados um
+ * depois do outro, pela trava por inspetor de
+ * {@link UploadInspecaoZipService#processarDoInspetor}.
+ */
+@Service
+public class ImportacaoZipPaiService {
+
+    private final UploadInspecaoZipService uploadService;
+    private final InspecaoProperties props;
+    private final ExecutoresInspecao executores;
+
+    public ImportacaoZipPaiService(UploadInspecaoZipService uploadService, InspecaoProperties props,
+                                   ExecutoresInspecao executores) {
+        this.uploadService = uploadService;
+        this.props = props;
+        this.executores = executores;
+    }
+
+    /**
+     * Importa os ZIPs internos lidos de {@code zipPai}. Entradas que não
+     * são {@code .zip} são ignoradas. O inspetor de cada ZIP interno vem de
+     * {@link NomesZipPai#inspetor}, o mesmo usado nas pastas do organizador.
+     * O resultado traz um item por ZIP interno, na ordem do pai: como cada
+     * importação é confirmada por conta própria, a falha de uma aparece no
+     * seu item e não impede as demais. Se o próprio ZIP pai deixar de ser
+     * legível no meio, os ZIPs já lidos são importados e um último item,
+     * sem arquivo, traz o erro da leitura.
+     */
+    public List<ImportacaoZipInternoResponse> processar(InputStream zipPai) throws IOException {
+        int paralelismo = Math.max(1, props.getZipsParalelos());
+        // Limita os ZIPs internos gravados em disco aguardando importação
+        Semaphore pendentes = new Semaphore(paralelismo * 2);
+        Path tempDir = Files.createTempDirectory("zip-pai-inspecao");
+        List<String> nomes = new ArrayList<>();
+        List<Future<UploadZipResponse>> importacoes = new ArrayList<>();
+        String falhaLeitura = null;
+        try {
+            try (ZipInputStream zin = new ZipInputStream(zipPai)) {
+                ZipEntry entry;
+                while ((entry = zin.getNextEntry()) != null) {
+                    if (entry.isDirectory()) {
+                        continue;
+                    }
+                    String nome = Path.of(entry.getName()).getFileName().toString();
+                    if (!nome.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                        continue;
+                    }
+                    String inspetorId = NomesZipPai.inspetor(nome);
+
+                    pendentes.acquire();
+                    Path temp = null;
+                    try {
+                        temp = Files.createTempFile(tempDir, "inspetor", ".zip");
+                        Files.copy(zin, temp, StandardCopyOption.REPLACE_EXISTING);
+                        Path zipInterno = temp;
+                        nomes.add(nome);
+                        importacoes.add(executores.zipsPai().submit(() -> {
+                            try (InputStream in = Files.newInputStream(zipInterno)) {
+                                return uploadService.processarDoInspetor(inspetorId, in);
+                            } finally {
+                                Files.deleteIfExists(zipInterno);
+                                pendentes.release();
+                            }
+                        }));
+                    } catch (IOException | RuntimeException e) {
+                        if (temp != null) Files.deleteIfExists(temp);
+                        pendentes.release();
+                        throw e;
+                    }
+                }
+            } catch (IOException e) {
+                log("ERRO ao ler o ZIP pai: " + mensagem(e));
+                falhaLeitura = "Falha ao ler o ZIP pai: " + mensagem(e);
+            }
+
+            List<ImportacaoZipInternoResponse> resultados = new ArrayList<>();
+            for (int i = 0; i < importacoes.size(); i++) {
+                try {
+                    resultados.add(ImportacaoZipInternoResponse.sucesso(nomes.get(i), importacoes.get(i).get()));
+                } catch (ExecutionException e) {
+                    String erro = mensagem(e.getCause());
+                    log("ERRO ao importar " + nomes.get(i) + ": " + erro);
+                    resultados.add(ImportacaoZipInternoResponse.falha(nomes.get(i), erro));
+                }
+            }
+            if (falhaLeitura != null) {
+                resultados.add(ImportacaoZipInternoResponse.falha(null, falhaLeitura));
+            }
+            return resultados;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida.", e);
+        } finally {
+            // Importações já enviadas terminam antes de a pasta temporária ser removida
+            aguardarTermino(importacoes);
+            try (Stream<Path> restantes = Files.list(tempDir)) {
+                for (Path restante : (Iterable<Path>) restantes::iterator) {
+                    Files.deleteIfExists(restante);
+                }
+            }
+            Files.deleteIfExists(tempDir);
+        }
+    }
+
+    /**
+     * Aguarda as importações desta chamada no pool compartilhado, ignorando
+     * as falhas (já registradas nos resultados). Se a
+     * espera for interrompida, as restantes são canceladas.
+     */
+    private static void aguardarTermino(List<Future<UploadZipResponse>> importacoes) {
+        for (Future<UploadZipResponse> importacao : importacoes) {
+            try {
+                while (true) {
+                    try {
+                        importacao.get(1, TimeUnit.MINUTES);
+                        break;
+                    } catch (TimeoutException e) {
+                        log("Aguardando importações em andamento...");
+                    }
+                }
+            } catch (ExecutionException | CancellationException e) {
+                // Falha desta importação já repassada ou irrelevante aqui
+            } catch (InterruptedException e) {
+                importacoes.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static String mensagem(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.toString();
+    }
+
+    private static void log(String msg) {
+        System.out.println(msg);
+    }
+}
@@ -1,22 +1,45 @@
 package br.com.portfoliopelusci.inspecao.service;
 
+import br.com.portfoliopelusci.inspecao.config.InspecaoProperties;
 import br.com.portfoliopelusci.inspecao.dto.UploadZipResponse;
 import br.com.portfoliopelusci.inspecao.entity.FotoInspecao;
 import br.com.portfoliopelusci.inspecao.entity.Inspecao;
 import br.com.portfoliopelusci.inspecao.entity.Inspetor;
+import br.com.portfoliopelusci.inspecao.repository.FotoInspecaoRepository;
 import br.com.portfoliopelusci.inspecao.repository.InspecaoRepository;
 import br.com.portfoliopelusci.inspecao.repository.InspetorRepository;
-import jakarta.transaction.Transactional;
+import br.com.portfoliopelusci.service.NomesZipPai;
+import jakarta.persistence.EntityManager;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -25,25 +48,352 @@ public class UploadInspecaoZipService {
 
     private final InspetorRepository inspetorRepository;
     private final InspecaoRepository inspecaoRepository;
+    private final FotoInspecaoRepository fotoInspecaoRepository;
+    private final ArmazenamentoFotos armazenamento;
+    private final InspecaoProperties props;
+    private final ExecutoresInspecao executores;
+    private final EntityManager entityManager;
+    private final TransactionOperations transacao;
+    private final Map<String, TravaInspetor> travas = new ConcurrentHashMap<>();
 
-    public UploadInspecaoZipService(InspetorRepository inspetorRepository, InspecaoRepository inspecaoRepository) {
+    public UploadInspecaoZipService(InspetorRepository inspetorRepository, InspecaoRepository inspecaoRepository,
+                                    FotoInspecaoRepository fotoInspecaoRepository, ArmazenamentoFotos armazenamento,
+                                    InspecaoProperties props, ExecutoresInspecao executores,
+                                    EntityManager entityManager, TransactionOperations transacao) {
         this.inspetorRepository = inspetorRepository;
         this.inspecaoRepository = inspecaoRepository;
+        this.fotoInspecaoRepository = fotoInspecaoRepository;
+        this.armazenamento = armazenamento;
+        this.props = props;
+        this.executores = executores;
+        this.entityManager = entityManager;
+        this.transacao = transacao;
     }
 
-    @Transactional
+    /**
+     * Importa as fotos do ZIP em três etapas ligadas por filas limitadas:
+     * uma tarefa lê e descompacta as entradas para arquivos temporários, o
+     * pool de gravação calcula o hash e grava cada foto no armazenamento
+     * (ambos compartilhados com as demais importações, ver
+     * {@link ExecutoresInspecao}), e a thread
+     * chamadora, dentro da transação, grava as fotos no banco em lotes. A
+     * leitura do ZIP segue enquanto o banco responde, e a fila de fotos em
+     * andamento impede que a leitura avance demais sobre as etapas seguintes.
+     */
     public UploadZipResponse processar(MultipartFile zipFile) throws IOException {
-        validarZip(zipFile);
+        if (zipFile == null || zipFile.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo ZIP obrigatório.");
+        }
+        validarNome(zipFile.getOriginalFilename());
+        try (InputStream in = zipFile.getInputStream()) {
+            return processar(zipFile.getOriginalFilename(), in);
+        }
+    }
+
+    /**
+     * Variante de {@link #processar(MultipartFile)} que lê o ZIP direto do
+     * stream informado, por exemplo o corpo da requisição, sem que o upload
+     * seja gravado antes em disco. O stream é consumido até o fim do ZIP.
+     *
+     * @param nomeArquivoZip nome do ZIP, de onde vem o id do inspetor ({@link NomesZipPai#inspetor})
+     */
+    public UploadZipResponse processar(String nomeArquivoZip, InputStream zip) throws IOException {
+        validarNome(nomeArquivoZip);
+        return processarDoInspetor(extrairInspetorId(nomeArquivoZip), zip);
+    }
+
+    /**
+     * Como {@link #processar(String, InputStream)}, com o id do inspetor já
+     * definido pelo chamador (por exemplo, a partir do nome de um ZIP
+     * interno de um ZIP pai).
+     *
+     * <p>Importações do mesmo inspetor rodam uma de cada vez: a seguinte
+     * só começa depois que a anterior foi confirmada, e por isso enxerga o
+     * inspetor, as inspeções e os hashes gravados por ela. Um reenvio
+     * simultâneo do mesmo ZIP conta as fotos como repetidas em vez de
+     * esbarrar nas chaves únicas do banco. A trava vale dentro desta
+     * instância da aplicação.</p>
+     *
+     * <p>A vaga entre as {@code importacoesSimultaneas} é obtida depois da
+     * trava do inspetor e antes de a transação começar: importações que
+     * aguardam a vez não ocupam vaga, não seguram uma conexão do banco nem
+     * uma transação aberta. Qualquer falha, inclusive de leitura do ZIP,
+     * desfaz a importação inteira.</p>
+     */
+    public UploadZipResponse processarDoInspetor(String inspetorId, InputStream zip) throws IOException {
+        if (inspetorId == null || inspetorId.isBlank()) {
+            throw new IllegalArgumentException("Não foi possível identificar o id do inspetor no nome do ZIP.");
+        }
+        Semaphore vagas = executores.vagasImportacao();
+        TravaInspetor trava = travas.compute(inspetorId, (id, atual) -> {
+            TravaInspetor t = atual != null ? atual : new TravaInspetor();
+            t.usos++;
+            return t;
+        });
+        try {
+            trava.lock.lockInterruptibly();
+            try {
+                vagas.acquire();
+                try {
+                    return transacao.execute(status -> {
+                        try {
+                            return importar(inspetorId, zip);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                } finally {
+                    vagas.release();
+                }
+            } finally {
+                trava.lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida.", e);
+        } finally {
+            travas.computeIfPresent(inspetorId, (id, t) -> --t.usos == 0 ? null : t);
+        }
+    }
 
-        String inspetorId = extrairInspetorId(zipFile.getOriginalFilename());
+    /** Trava das importações de um inspetor; some do mapa quando ninguém mais a usa. */
+    private static final class TravaInspetor {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private int usos;
+    }
+
+    /** Importação propriamente dita, dentro da transação e com a vaga já obtida. */
+    private UploadZipResponse importar(String inspetorId, InputStream zip) throws IOException {
         Inspetor inspetor = inspetorRepository.findById(inspetorId)
                 .orElseGet(() -> inspetorRepository.save(new Inspetor(inspetorId)));
 
         int fotosSalvas = 0;
+        int fotosDuplicadas = 0;
         Set<String> inspecoesAfetadas = new HashSet<>();
 
-        try (InputStream inputStream = zipFile.getInputStream();
-             ZipInputStream zipInputStream = new ZipInputStream(inputStream)) {
+        // Inspeções do inspetor carregadas de uma vez; as fotos são gravadas em
+        // lotes, e depois de cada lote as entidades seguem apenas como referências
+        Map<String, Inspecao> inspecoes = new HashMap<>();
+        for (Inspecao existente : inspecaoRepository.findByInspetorId(inspetorId)) {
+            inspecoes.put(existente.getWorder(), existente);
+        }
+        // Conteúdos já gravados por worder, para ignorar fotos reenviadas
+        Map<String, Set<String>> hashesPorWorder = new HashMap<>();
+        for (FotoInspecaoRepository.HashFoto existente : fotoInspecaoRepository.findHashesByInspetorId(inspetorId)) {
+            hashesPorWorder.computeIfAbsent(existente.getWorder(), w -> new HashSet<>()).add(existente.getHash());
+        }
+        // Arquivos criados por esta importação, apagados se a transação voltar atrás
+        Set<String> novas = ConcurrentHashMap.newKeySet();
+        boolean emTransacao = registrarDescarte(novas);
+        int tamanhoLote = Math.max(1, props.getLoteFotos());
+        List<FotoInspecao> lote = new ArrayList<>(tamanhoLote);
+
+        BlockingQueue<FotoPendente> fila = new ArrayBlockingQueue<>(Math.max(1, props.getFilaFotos()));
+        TarefasEmAndamento tarefas = new TarefasEmAndamento();
+        Future<?> leitura = null;
+        try {
+            leitura = executores.leitura().submit(() -> {
+                if (tarefas.iniciar()) {
+                    try {
+                        lerEntradas(zip, fila, tarefas, novas);
+                    } finally {
+                        tarefas.terminar();
+                    }
+                }
+                return null;
+            });
+
+            FotoPendente proxima;
+            while ((proxima = fila.take()) != FIM_DA_LEITURA) {
+                FotoExtraida foto = aguardar(proxima.gravacao());
+                if (!hashesPorWorder.computeIfAbsent(foto.worder(), w -> new HashSet<>()).add(foto.armazenada().hash())) {
+                    fotosDuplicadas++;
+                    continue;
+                }
+
+                Inspecao inspecao = inspecoes.computeIfAbsent(foto.worder(),
+                        w -> inspecaoRepository.save(new Inspecao(w, inspetor)));
+
+                String contentType = detectarContentType(foto.nomeArquivo());
+                // Só a referência da inspeção é usada; a coleção de fotos não é inicializada
+                lote.add(new FotoInspecao(inspecao, foto.nomeArquivo(), contentType,
+                        foto.armazenada().hash(), foto.armazenada().tamanho()));
+                if (lote.size() >= tamanhoLote) {
+                    gravarLote(lote);
+                }
+
+                fotosSalvas++;
+                inspecoesAfetadas.add(foto.worder());
+            }
+            // Repassa a falha da leitura, se houver
+            aguardar(leitura);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida.", e);
+        } finally {
+            encerrar(tarefas, leitura, fila);
+            if (!emTransacao) {
+                // Sem transação cada lote já foi gravado por conta própria
+                armazenamento.confirmar(novas);
+            }
+        }
+        gravarLote(lote);
+
+        return new UploadZipResponse(inspetorId, inspecoesAfetadas.size(), fotosSalvas, fotosDuplicadas);
+    }
+
+    /**
+     * Confirma os arquivos criados pela importação quando a transação for
+     * confirmada, ou os apaga quando ela voltar atrás, para que uma
+     * importação desfeita não deixe fotos sem referência no armazenamento.
+     *
+     * @return {@code false} se não houver transação em andamento
+     */
+    private boolean registrarDescarte(Set<String> novas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    armazenamento.descartar(novas);
+                } else {
+                    armazenamento.confirmar(novas);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Encerra as etapas da importação, com ou sem falha. A leitura é
+     * interrompida, as fotos que ficaram na fila são descartadas e a leitura
+     * e as gravações já iniciadas terminam antes do retorno, de modo que
+     * nenhuma tarefa desta importação ou temporário sobrevive à chamada. Os
+     * pools compartilhados seguem atendendo as demais importações.
+     */
+    private static void encerrar(TarefasEmAndamento tarefas, Future<?> leitura, BlockingQueue<FotoPendente> fila) {
+        tarefas.encerrar();
+        if (leitura != null) {
+            leitura.cancel(true);
+        }
+        descartarFila(fila);
+        boolean interrompida = !tarefas.aguardar();
+        // A leitura pode ter entregue uma última foto antes de perceber o encerramento
+        descartarFila(fila);
+        if (interrompida) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void descartarFila(BlockingQueue<FotoPendente> fila) {
+        List<FotoPendente> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        restantes.forEach(UploadInspecaoZipService::descartar);
+    }
+
+    /**
+     * Tarefas de uma importação em execução nos pools compartilhados. Como
+     * os pools não são encerrados ao fim de cada importação, é por aqui que
+     * {@link #encerrar} sabe quando a leitura e as gravações terminaram.
+     * Depois do encerramento nenhuma tarefa nova começa.
+     */
+    private static final class TarefasEmAndamento {
+
+        private volatile boolean encerrada;
+        private int emAndamento;
+
+        /** @return {@code false} se a importação já foi encerrada e a tarefa não deve rodar */
+        synchronized boolean iniciar() {
+            if (encerrada) {
+                return false;
+            }
+            emAndamento++;
+            return true;
+        }
+
+        synchronized void terminar() {
+            emAndamento--;
+            notifyAll();
+        }
+
+        synchronized void encerrar() {
+            encerrada = true;
+        }
+
+        boolean encerrada() {
+            return encerrada;
+        }
+
+        /** @return {@code false} se a espera foi interrompida */
+        synchronized boolean aguardar() {
+            try {
+                while (emAndamento > 0) {
+                    wait();
+                }
+                return true;
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Cancela a gravação de uma foto que não será usada. Se ela ainda não
+     * começou, o temporário é apagado aqui; caso contrário a própria
+     * gravação o remove ao terminar.
+     */
+    private static void descartar(FotoPendente pendente) {
+        if (pendente == FIM_DA_LEITURA || !pendente.gravacao().cancel(false)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(pendente.temp());
+        } catch (IOException ignored) {
+            // Temporário em tmp/, sem referência no banco
+        }
+    }
+
+    /**
+     * Entrega um item à fila, esperando enquanto ela estiver cheia.
+     *
+     * @return {@code false} se a importação foi encerrada antes da entrega
+     */
+    private static boolean entregar(BlockingQueue<FotoPendente> fila, FotoPendente item, TarefasEmAndamento tarefas)
+            throws InterruptedException {
+        while (!tarefas.encerrada()) {
+            if (fila.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Etapa de leitura: descompacta cada entrada para um temporário usando um
+     * único buffer e entrega o cálculo do hash ao pool de gravação. O
+     * resultado de cada foto entra na fila na ordem do ZIP; ao final, com ou
+     * sem falha, a fila recebe {@link #FIM_DA_LEITURA}. Se a importação for
+     * encerrada antes (falha no banco), a leitura para sem bloquear.
+     */
+    private void lerEntradas(InputStream zip, BlockingQueue<FotoPendente> fila, TarefasEmAndamento tarefas,
+                             Set<String> novas) throws IOException, InterruptedException {
+        // Limites de bytes descompactados e buffers fixos, para que a memória
+        // usada não dependa do tamanho das fotos
+        int tamanhoBuffer = Math.max(4096, props.getBufferBytes());
+        byte[] buffer = new byte[tamanhoBuffer];
+        // Um buffer por thread do pool de gravação: mais que isso desta importação não roda ao mesmo tempo
+        int threads = executores.threadsGravacao();
+        BlockingQueue<byte[]> buffersGravacao = new ArrayBlockingQueue<>(threads);
+        for (int i = 0; i < threads; i++) {
+            buffersGravacao.add(new byte[tamanhoBuffer]);
+        }
+        long restanteUpload = props.getMaxBytesUpload();
+
+        try (ZipInputStream zipInputStream = new ZipInputStream(zip)) {
 
             ZipEntry entry;
             while ((entry = zipInputStream.getNextEntry()) != null) {
@@ -63,43 +413,109 @@ public class UploadInspecaoZipService {
                     continue;
                 }
 
-                byte[] bytes = zipInputStream.readAllBytes();
-                if (bytes.length == 0) {
+                boolean limiteDoUpload = restanteUpload < props.getMaxBytesFoto();
+                Path temp;
+                try {
+                    temp = armazenamento.gravarTemporario(zipInputStream, buffer,
+                            limiteDoUpload ? restanteUpload : props.getMaxBytesFoto());
+                } catch (ArmazenamentoFotos.LimiteExcedidoException e) {
+                    throw new IllegalArgumentException(limiteDoUpload
+                            ? "O ZIP excede o limite de " + props.getMaxBytesUpload() + " bytes descompactados."
+                            : "A foto " + caminho + " excede o limite de " + props.getMaxBytesFoto() + " bytes.", e);
+                }
+                long tamanho = Files.size(temp);
+                restanteUpload -= tamanho;
+                if (tamanho == 0) {
+                    Files.deleteIfExists(temp);
                     continue;
                 }
 
-                Inspecao inspecao = inspecaoRepository.findByInspetorIdAndWorder(inspetorId, worder)
-                        .orElseGet(() -> inspecaoRepository.save(new Inspecao(worder, inspetor)));
-
-                String contentType = detectarContentType(nomeArquivo);
-                inspecao.adicionarFoto(new FotoInspecao(nomeArquivo, contentType, bytes));
-                inspecaoRepository.save(inspecao);
-
-                fotosSalvas++;
-                inspecoesAfetadas.add(worder);
+                Future<FotoExtraida> gravacao;
+                try {
+                    gravacao = executores.gravacao().submit(() -> {
+                        if (!tarefas.iniciar()) {
+                            Files.deleteIfExists(temp);
+                            throw new CancellationException("Importação encerrada.");
+                        }
+                        byte[] bufferGravacao = buffersGravacao.take();
+                        try {
+                            return new FotoExtraida(worder, nomeArquivo,
+                                    armazenamento.armazenar(temp, bufferGravacao, novas));
+                        } finally {
+                            buffersGravacao.add(bufferGravacao);
+                            tarefas.terminar();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Pool encerrado junto com a aplicação
+                    Files.deleteIfExists(temp);
+                    throw e;
+                }
+                FotoPendente pendente = new FotoPendente(temp, gravacao);
+                if (!entregar(fila, pendente, tarefas)) {
+                    descartar(pendente);
+                    return;
+                }
             }
+        } finally {
+            entregar(fila, FIM_DA_LEITURA, tarefas);
         }
+    }
 
-        return new UploadZipResponse(inspetorId, inspecoesAfetadas.size(), fotosSalvas);
+    /** Foto lida do ZIP e já gravada no armazenamento. */
+    private record FotoExtraida(String worder, String nomeArquivo, ArmazenamentoFotos.FotoArmazenada armazenada) {
     }
 
-    private static void validarZip(MultipartFile zipFile) {
-        if (zipFile == null || zipFile.isEmpty()) {
-            throw new IllegalArgumentException("Arquivo ZIP obrigatório.");
+    /** Foto na fila: gravação em andamento e o temporário que ela consome. */
+    private record FotoPendente(Path temp, Future<FotoExtraida> gravacao) {
+    }
+
+    /** Marca o fim da leitura na fila de fotos. */
+    private static final FotoPendente FIM_DA_LEITURA =
+            new FotoPendente(null, CompletableFuture.completedFuture(null));
+
+    /** Aguarda uma etapa assíncrona, repassando a exceção original. */
+    private static <T> T aguardar(Future<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
         }
+    }
+
+    /**
+     * Grava o lote de fotos e esvazia o contexto de persistência. Os ids vêm
+     * de blocos já reservados, então o flush envia os inserts do lote em um
+     * único lote JDBC; o clear evita que as fotos já gravadas se acumulem na
+     * sessão e encareçam o dirty checking até o fim da importação.
+     */
+    private void gravarLote(List<FotoInspecao> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        fotoInspecaoRepository.saveAll(lote);
+        fotoInspecaoRepository.flush();
+        entityManager.clear();
+        lote.clear();
+    }
 
-        String originalFilename = zipFile.getOriginalFilename();
+    private static void validarNome(String originalFilename) {
         if (originalFilename == null || !originalFilename.toLowerCase(Locale.ROOT).endsWith(".zip")) {
             throw new IllegalArgumentException("O arquivo precisa ser um .zip.");
         }
     }
 
+    /** Mesma regra de {@link NomesZipPai#inspetor}, para que todo caminho de upload leve ao mesmo inspetor. */
     private static String extrairInspetorId(String nomeArquivoZip) {
-        String baseName = nomeArquivoZip.substring(0, nomeArquivoZip.length() - 4).trim();
-        if (baseName.isBlank()) {
+        String inspetorId = NomesZipPai.inspetor(nomeArquivoZip);
+        if (inspetorId.isBlank()) {
             throw new IllegalArgumentException("Não foi possível identificar o id do inspetor no nome do ZIP.");
         }
-        return baseName;
+        return inspetorId;
     }
 
     private static String detectarContentType(String nomeArquivo) {
@@ -0,0 +1,124 @@
+package br.com.portfoliopelusci.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Escolhe nomes livres de pastas de destino. Fora do dry-run cada nome é
+ * reservado criando a pasta com {@link Files#createDirectory}, que falha
+ * se ela já existir: o próprio sistema de arquivos decide entre execuções
+ * simultâneas (e outras instâncias da aplicação), e quem perde passa ao
+ * sufixo seguinte. O próximo sufixo a tentar por nome base é compartilhado
+ * por todas as execuções, evitando testar de novo, a cada alocação, os
+ * sufixos já ocupados (caro em compartilhamentos de rede).
+ *
+ * <p>No dry-run nada é criado: cada diretório é listado uma única vez e os
+ * nomes escolhidos ficam só em memória, nesta instância. Pode ser usado por
+ * várias threads ao mesmo tempo.</p>
+ */
+public class AlocadorNomes {
+
+    /** Próximo sufixo a tentar por caminho desejado, compartilhado entre execuções. */
+    private static final Map<Path, Integer> PROXIMO_SUFIXO = new ConcurrentHashMap<>();
+
+    /** Diretórios listados para as alocações de dry-run desta instância. */
+    private final Map<Path, Diretorio> diretorios = new ConcurrentHashMap<>();
+
+    /** Caminhos reivindicados por inteiro, independentemente do disco. */
+    private final Set<Path> reivindicados = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Devolve {@code desejado} se o nome estiver livre ou, caso contrário,
+     * o primeiro {@code nome-N} livre, já reservando o resultado. Fora do
+     * dry-run a pasta devolvida já existe, vazia, e pertence a quem a
+     * alocou; no dry-run a reserva vale só para esta instância.
+     */
+    public Path alocar(Path desejado, boolean dryRun) throws IOException {
+        return dryRun ? simular(desejado) : reservar(desejado);
+    }
+
+    private static Path reservar(Path desejado) throws IOException {
+        Path chave = desejado.toAbsolutePath().normalize();
+        Files.createDirectories(chave.getParent());
+        if (criar(chave)) return desejado;
+        String base = chave.getFileName().toString();
+        int i = PROXIMO_SUFIXO.getOrDefault(chave, 1);
+        while (!criar(chave.resolveSibling(base + "-" + i))) {
+            i++;
+        }
+        PROXIMO_SUFIXO.merge(chave, i + 1, Math::max);
+        return desejado.resolveSibling(base + "-" + i);
+    }
+
+    private static boolean criar(Path pasta) throws IOException {
+        try {
+            Files.createDirectory(pasta);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    private Path simular(Path desejado) throws IOException {
+        Path pai = desejado.toAbsolutePath().normalize().getParent();
+        Diretorio dir;
+        try {
+            dir = diretorios.computeIfAbsent(pai, AlocadorNomes::listar);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return desejado.resolveSibling(dir.alocar(desejado.getFileName().toString()));
+    }
+
+    /**
+     * Reivindica o caminho exato para esta execução.
+     *
+     * @return {@code false} se outro processamento da mesma execução já o
+     *         reivindicou
+     */
+    public boolean reivindicar(Path caminho) {
+        return reivindicados.add(caminho.toAbsolutePath().normalize());
+    }
+
+    private static Diretorio listar(Path pai) {
+        Set<String> ocupados = new HashSet<>();
+        try (Stream<Path> stream = Files.list(pai)) {
+            stream.forEach(p -> ocupados.add(p.getFileName().toString()));
+        } catch (NoSuchFileException e) {
+            // Diretório ainda não existe: nenhum nome ocupado
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Diretorio(ocupados);
+    }
+
+    /** Nomes ocupados em um diretório e próximo sufixo a tentar por nome base. */
+    private static final class Diretorio {
+        private final Set<String> ocupados;
+        private final Map<String, Integer> proximoSufixo = new HashMap<>();
+
+        Diretorio(Set<String> ocupados) {
+            this.ocupados = ocupados;
+        }
+
+        synchronized String alocar(String base) {
+            if (ocupados.add(base)) return base;
+            int i = proximoSufixo.getOrDefault(base, 1);
+            while (!ocupados.add(base + "-" + i)) {
+                i++;
+            }
+            proximoSufixo.put(base, i + 1);
+            return base + "-" + i;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package br.com.portfoliopelusci.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Acrescenta linhas ao final de uma aba de um XLSX existente sem remontar o
+ * workbook. As partes do pacote são copiadas uma a uma para um novo ZIP com
+ * o conteúdo intacto; só o XML da aba de destino é percorrido, e as novas
+ * linhas (células de texto inline) entram antes do fechamento de
+ * {@code <sheetData>}. A área em {@code <dimension ref>} é ampliada para
+ * incluir as novas linhas. Células existentes, estilos, strings
+ * compartilhadas e as demais abas não são reescritos, e o consumo de
+ * memória não depende do tamanho do arquivo.
+ */
+final class AnexadorPlanilhaXlsx {
+
+    private static final Pattern FIM_SHEET_DATA = Pattern.compile("</(?:(\\w+):)?sheetData\\s*>");
+    private static final Pattern SHEET_DATA_VAZIO = Pattern.compile("<(?:(\\w+):)?sheetData\\s*/>");
+    private static final Pattern DIMENSAO = Pattern.compile("<(?:\\w+:)?dimension\\s+ref=\"([^\"]*)\"\\s*/?>");
+
+    /** Tags maiores que isso não podem ser {@code sheetData} nem {@code dimension} e são copiadas direto. */
+    private static final int MAIOR_TAG_SHEET_DATA = 64;
+
+    private AnexadorPlanilhaXlsx() {
+    }
+
+    /**
+     * Grava em {@code destino} uma cópia de {@code origem} com {@code linhas}
+     * acrescentadas à aba {@code sheetIndex}, a partir da linha
+     * {@code primeiraLinha} (base 0). Valores {@code null} ou vazios não
+     * geram célula.
+     */
+    static void anexar(Path origem, int sheetIndex, int primeiraLinha, List<String[]> linhas, Path destino)
+            throws IOException {
+        String parte = parteDaAba(origem, sheetIndex);
+        boolean injetado = false;
+        try (ZipFile zip = new ZipFile(origem.toFile());
+             ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(destino)))) {
+            Enumeration<? extends ZipEntry> entradas = zip.entries();
+            while (entradas.hasMoreElements()) {
+                ZipEntry entrada = entradas.nextElement();
+                out.putNextEntry(new ZipEntry(entrada.getName()));
+                try (InputStream in = zip.getInputStream(entrada)) {
+                    if (entrada.getName().equals(parte)) {
+                        // Sem close: fecharia o ZIP junto
+                        BufferedOutputStream aba = new BufferedOutputStream(out);
+                        injetado = copiarInjetando(new BufferedInputStream(in), aba, primeiraLinha, linhas);
+                        aba.flush();
+                    } else {
+                        in.transferTo(out);
+                    }
+                }
+                out.closeEntry();
+            }
+        }
+        if (!injetado) {
+            throw new IOException("Elemento sheetData não encontrado na aba " + sheetIndex + " de " + origem);
+        }
+    }
+
+    /** Nome da entrada do ZIP que guarda a aba {@code sheetIndex}. */
+    private static String parteDaAba(Path excel, int sheetIndex) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(excel.toFile(), PackageAccess.READ)) {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            int atual = 0;
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                if (atual++ == sheetIndex) {
+                    return sheets.getSheetPart().getPartName().getName().substring(1);
+                }
+            }
+            throw new IllegalArgumentException("Aba " + sheetIndex + " não encontrada no Excel.");
+        } catch (OpenXML4JException e) {
+            throw new IOException("Erro ao ler planilha: " + excel + " -> " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copia o XML da aba byte a byte, ampliando {@code dimension} e inserindo
+     * as linhas antes do fechamento de {@code sheetData}.
+     *
+     * @return {@code true} se o ponto de inserção foi encontrado
+     */
+    private static boolean copiarInjetando(InputStream in, OutputStream out, int primeiraLinha,
+                                           List<String[]> linhas) throws IOException {
+        ByteArrayOutputStream tag = new ByteArrayOutputStream(MAIOR_TAG_SHEET_DATA);
+        boolean dentroDeTag = false;
+        int b;
+        while ((b = in.read()) != -1) {
+            if (!dentroDeTag) {
+                if (b == '<') {
+                    dentroDeTag = true;
+                    tag.reset();
+                    tag.write(b);
+                } else {
+                    out.write(b);
+                }
+                continue;
+            }
+            tag.write(b);
+            if (b != '>' && tag.size() < MAIOR_TAG_SHEET_DATA) continue;
+            dentroDeTag = false;
+            if (b == '>') {
+                String texto = tag.toString(StandardCharsets.UTF_8);
+                Matcher dimensao = DIMENSAO.matcher(texto);
+                if (dimensao.matches()) {
+                    out.write(ampliarDimensao(dimensao, texto, primeiraLinha, linhas).getBytes(StandardCharsets.UTF_8));
+                    continue;
+                }
+                Matcher fim = FIM_SHEET_DATA.matcher(texto);
+                Matcher vazio = SHEET_DATA_VAZIO.matcher(texto);
+                if (fim.matches()) {
+                    escreverLinhas(out, prefixo(fim.group(1)), primeiraLinha, linhas);
+                    tag.writeTo(out);
+                    in.transferTo(out);
+                    return true;
+                }
+                if (vazio.matches()) {
+                    String p = prefixo(vazio.group(1));
+                    out.write(("<" + p + "sheetData>").getBytes(StandardCharsets.UTF_8));
+                    escreverLinhas(out, p, primeiraLinha, linhas);
+                    out.write(("</" + p + "sheetData>").getBytes(StandardCharsets.UTF_8));
+                    in.transferTo(out);
+                    return true;
+                }
+            }
+            tag.writeTo(out);
+        }
+        if (dentroDeTag) tag.writeTo(out);
+        return false;
+    }
+
+    /**
+     * Tag {@code dimension} com o canto final da área estendido até a última
+     * linha e a última coluna preenchida das novas linhas. Uma área que não
+     * possa ser interpretada é mantida como está.
+     */
+    private static String ampliarDimensao(Matcher dimensao, String tag, int primeiraLinha, List<String[]> linhas) {
+        int ultimaColuna = -1;
+        for (String[] valores : linhas) {
+            for (int c = valores.length - 1; c > ultimaColuna; c--) {
+                if (valores[c] != null && !valores[c].isEmpty()) {
+                    ultimaColuna = c;
+                    break;
+                }
+            }
+        }
+        if (ultimaColuna < 0) return tag;
+        String ref = dimensao.group(1);
+        int doisPontos = ref.indexOf(':');
+        String inicio = doisPontos >= 0 ? ref.substring(0, doisPontos) : ref;
+        CellReference fim;
+        try {
+            fim = new CellReference(doisPontos >= 0 ? ref.substring(doisPontos + 1) : ref);
+        } catch (IllegalArgumentException e) {
+            return tag;
+        }
+        int ultimaLinha = primeiraLinha + linhas.size() - 1;
+        CellReference novoFim = new CellReference(Math.max(fim.getRow(), ultimaLinha),
+                Math.max(fim.getCol(), ultimaColuna));
+        return tag.substring(0, dimensao.start(1)) + inicio + ":" + novoFim.formatAsString()
+                + tag.substring(dimensao.end(1));
+    }
+
+    private static String prefixo(String ns) {
+        return ns == null ? "" : ns + ":";
+    }
+
+    private static void escreverLinhas(OutputStream out, String p, int primeiraLinha, List<String[]> linhas)
+            throws IOException {
+        Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        int numero = primeiraLinha + 1;
+        for (String[] valores : linhas) {
+            w.write("<" + p + "row r=\"" + numero + "\">");
+            for (int c = 0; c < valores.length; c++) {
+                String v = valores[c];
+                if (v == null || v.isEmpty()) continue;
+                w.write("<" + p + "c r=\"" + CellReference.convertNumToColString(c) + numero
+                        + "\" t=\"inlineStr\"><" + p + "is><" + p + "t");
+                if (!v.equals(v.strip())) w.write(" xml:space=\"preserve\"");
+                w.write(">");
+                escapar(w, v);
+                w.write("</" + p + "t></" + p + "is></" + p + "c>");
+            }
+            w.write("</" + p + "row>");
+            numero++;
+        }
+        w.flush();
+    }
+
+    private static void escapar(Writer w, String v) throws IOException {
+        for (int i = 0; i < v.length(); i++) {
+            char ch = v.charAt(i);
+            switch (ch) {
+                case '&' -> w.write("&amp;");
+                case '<' -> w.write("&lt;");
+                case '>' -> w.write("&gt;");
+                case '"' -> w.write("&quot;");
+                default -> {
+                    // Caracteres de controle não são válidos em XML 1.0
+                    if (ch >= 0x20 || ch == '\t' || ch == '\n' || ch == '\r') w.write(ch);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package br.com.portfoliopelusci.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache das linhas já lidas de uma planilha, indexado pelo caminho,
+ * tamanho e data de modificação do arquivo. Execuções repetidas sobre
+ * uma planilha inalterada reaproveitam as linhas sem passar pelo POI.
+ * O total mantido em memória é limitado por uma estimativa de bytes,
+ * descartando primeiro as entradas menos usadas.
+ */
+public class CachePlanilha {
+
+    /** Identifica uma aba de uma versão específica do arquivo. */
+    private record Chave(Path caminho, long tamanho, long modificado, int aba) {
+    }
+
+    private record Entrada(String nomeAba, String[] cabecalho, int linhaCabecalho,
+                           List<LeitorPlanilhaStream.Linha> linhas, long bytes) {
+    }
+
+    /** Limite de bytes estimados mantidos no cache (0 desativa). */
+    private final LongSupplier maxBytes;
+
+    private final LinkedHashMap<Chave, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytesAtuais;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachePlanilha(LongSupplier maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Entrega ao visitante as linhas da aba, a partir do cache quando o
+     * arquivo não mudou ou lendo a planilha em streaming caso contrário.
+     */
+    public void ler(Path excel, int sheetIndex, LeitorPlanilhaStream.Visitante visitante) throws IOException {
+        Path caminho = excel.toAbsolutePath().normalize();
+        Chave chave = new Chave(caminho, Files.size(caminho), Files.getLastModifiedTime(caminho).toMillis(), sheetIndex);
+
+        Entrada entrada;
+        synchronized (this) {
+            entrada = entradas.get(chave);
+        }
+        if (entrada != null) {
+            log("CACHE PLANILHA: hit " + caminho.getFileName() + " (hits=" + hits.incrementAndGet() + ", misses=" + misses.get() + ")");
+            visitante.cabecalho(entrada.nomeAba(), entrada.cabecalho().clone(), entrada.linhaCabecalho());
+            for (LeitorPlanilhaStream.Linha linha : entrada.linhas()) {
+                visitante.linha(linha);
+            }
+            return;
+        }
+
+        log("CACHE PLANILHA: miss " + caminho.getFileName() + " (hits=" + hits.get() + ", misses=" + misses.incrementAndGet() + ")");
+        long limite = maxBytes.getAsLong();
+        Coleta coleta = new Coleta(visitante, limite);
+        LeitorPlanilhaStream.ler(caminho, sheetIndex, coleta);
+        if (coleta.linhas != null) {
+            guardar(chave, new Entrada(coleta.nomeAba, coleta.cabecalho, coleta.linhaCabecalho, coleta.linhas, coleta.bytes), limite);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private synchronized void guardar(Chave chave, Entrada entrada, long limite) {
+        // Versões anteriores do mesmo arquivo não serão mais usadas
+        Iterator<Map.Entry<Chave, Entrada>> it = entradas.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Chave, Entrada> e = it.next();
+            if (e.getKey().caminho().equals(chave.caminho()) && e.getKey().aba() == chave.aba()) {
+                bytesAtuais -= e.getValue().bytes();
+                it.remove();
+            }
+        }
+
+        entradas.put(chave, entrada);
+        bytesAtuais += entrada.bytes();
+
+        // Remove as entradas menos usadas até voltar ao limite
+        it = entradas.entrySet().iterator();
+        while (bytesAtuais > limite && it.hasNext()) {
+            Map.Entry<Chave, Entrada> e = it.next();
+            bytesAtuais -= e.getValue().bytes();
+            it.remove();
+        }
+    }
+
+    /** Repassa as linhas ao visitante e as guarda enquanto couberem no limite. */
+    private static final class Coleta implements LeitorPlanilhaStream.Visitante {
+        private final LeitorPlanilhaStream.Visitante destino;
+        private final long limite;
+
+        private String nomeAba;
+        private String[] cabecalho;
+        private int linhaCabecalho;
+        private List<LeitorPlanilhaStream.Linha> linhas = new ArrayList<>();
+        private long bytes;
+
+        Coleta(LeitorPlanilhaStream.Visitante destino, long limite) {
+            this.destino = destino;
+            this.limite = limite;
+        }
+
+        @Override
+        public void cabecalho(String nomeAba, String[] colunas, int numeroLinha) {
+            this.nomeAba = nomeAba;
+            this.cabecalho = colunas.clone();
+            this.linhaCabecalho = numeroLinha;
+            bytes = estimar(colunas);
+            destino.cabecalho(nomeAba, colunas, numeroLinha);
+        }
+
+        @Override
+        public void linha(LeitorPlanilhaStream.Linha linha) throws IOException {
+            if (linhas != null) {
+                bytes += estimar(linha.valores()) + 16L + 8L * linha.datas().length;
+                if (bytes > limite) {
+                    // Planilha grande demais para o cache: segue apenas em streaming
+                    linhas = null;
+                } else {
+                    linhas.add(linha);
+                }
+            }
+            destino.linha(linha);
+        }
+
+        private static long estimar(String[] valores) {
+            long total = 16L + 8L * valores.length;
+            for (String v : valores) {
+                if (v != null) total += 40L + v.length();
+            }
+            return total;
+        }
+    }
+
+    /** Escreve uma mensagem simples no console. */
+    private static void log(String s) {
+        System.out.println(s);
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.portfoliopelusci.service;
+
+import br.com.portfoliopelusci.config.OrganizadorProperties;
+import br.com.portfoliopelusci.config.OrganizadorProperties.PlacementMode;
+
+import java.nio.file.Path;
+import java.time.ZoneId;
+
+/**
+ * Parâmetros de uma execução do organizador, fixados no início da
+ * chamada. Cada execução recebe sua própria cópia, então trocar a origem
+ * ou o destino (como fazem os fluxos de ZIP) não afeta outras execuções
+ * simultâneas nem a configuração global em {@link OrganizadorProperties}.
+ *
+ * <p>Caminhos não configurados ficam {@code null}. O {@link AlocadorNomes}
+ * é compartilhado por todos os contextos derivados de uma mesma execução;
+ * os nomes de destino que ele reserva no disco valem também contra outras
+ * execuções, para que processamentos em paralelo não disputem a mesma
+ * pasta. Quando
+ * {@code mesclagens} não é {@code null}, a atualização da planilha de
+ * saída fica acumulada para o final da execução. {@code inspetorZipPai}
+ * é o inspetor dono das ordens quando elas vêm de um ZIP interno do ZIP
+ * pai; nas demais execuções fica {@code null}.</p>
+ */
+public record ContextoExecucao(
+        Path excel,
+        Path otherExcel,
+        Path sourceBase,
+        Path destBase,
+        Path allOrdersBase,
+        Path zipFolder,
+        Path parentZip,
+        Path indiceInspetores,
+        int sheetIndex,
+        boolean dryRun,
+        boolean overwriteExisting,
+        ZoneId zona,
+        String colunaNumero,
+        String colunaTipo,
+        String colunaData,
+        PlacementMode placementMode,
+        ProgressoExecucao progresso,
+        AlocadorNomes nomes,
+        MesclagensAdiadas mesclagens,
+        String inspetorZipPai
+) {
+
+    private static final String TIMEZONE_PADRAO = "America/Sao_Paulo";
+
+    /**
+     * Sufixo do índice WORDER → inspetor usado quando nenhum caminho é
+     * configurado. O arquivo fica ao lado de {@code destBase}, fora da
+     * árvore de saída entregue aos usuários.
+     */
+    private static final String SUFIXO_INDICE_PADRAO = ".indice-inspetores.tsv";
+
+    /** Cria o contexto a partir da configuração atual. */
+    public static ContextoExecucao de(OrganizadorProperties props) {
+        // Define timezone para operações com datas (padrão: São Paulo)
+        String tz = TIMEZONE_PADRAO;
+        try {
+            String configuredTz = (props.getTimezone() != null && !props.getTimezone().isBlank())
+                    ? props.getTimezone() : TIMEZONE_PADRAO;
+            ZoneId.of(configuredTz); // valida
+            tz = configuredTz;
+        } catch (Exception ignored) {}
+
+        OrganizadorProperties.Columns columns = props.getColumns();
+        String hNumero = columns != null ? columns.getNumero() : "WORDER";
+        String hTipo   = columns != null ? columns.getTipo()   : "OTYPE";
+        String hData   = (columns != null && columns.getData() != null && !columns.getData().isBlank())
+                ? columns.getData() : "DUEDATE";
+
+        Path destBase = caminho(props.getDestBasePath());
+        Path indice = caminho(props.getInspectorIndexPath());
+
+        return new ContextoExecucao(
+                caminho(props.getExcelPath()),
+                caminho(props.getOtherExcelPath()),
+                caminho(props.getSourceBasePath()),
+                destBase,
+                caminho(props.getAllOrdersBasePath()),
+                caminho(props.getZipFolderPath()),
+                caminho(props.getParentZipPath()),
+                indice != null ? indice : indicePadrao(destBase),
+                props.getSheetIndex() != null ? props.getSheetIndex() : 0,
+                props.isDryRun(),
+                props.isOverwriteExisting(),
+                ZoneId.of(tz),
+                hNumero,
+                hTipo,
+                hData,
+                props.getPlacementMode() != null ? props.getPlacementMode() : PlacementMode.COPY,
+                new ProgressoExecucao(),
+                new AlocadorNomes(),
+                null,
+                null);
+    }
+
+    public ContextoExecucao comOrigem(Path sourceBase) {
+        return new ContextoExecucao(excel, otherExcel, sourceBase, destBase, allOrdersBase, zipFolder, parentZip, indiceInspetores,
+                sheetIndex, dryRun, overwriteExisting, zona, colunaNumero, colunaTipo, colunaData, placementMode, progresso, nomes, mesclagens, inspetorZipPai);
+    }
+
+    public ContextoExecucao comDestino(Path destBase) {
+        return new ContextoExecucao(excel, otherExcel, sourceBase, destBase, allOrdersBase, zipFolder, parentZip, indiceInspetores,
+                sheetIndex, dryRun, overwriteExisting, zona, colunaNumero, colunaTipo, colunaData, placementMode, progresso, nomes, mesclagens, inspetorZipPai);
+    }
+
+    public ContextoExecucao comDryRun(boolean dryRun) {
+        return new ContextoExecucao(excel, otherExcel, sourceBase, destBase, allOrdersBase, zipFolder, parentZip, indiceInspetores,
+                sheetIndex, dryRun, overwriteExisting, zona, colunaNumero, colunaTipo, colunaData, placementMode, progresso, nomes, mesclagens, inspetorZipPai);
+    }
+
+    public ContextoExecucao comPlacementMode(PlacementMode placementMode) {
+        return new ContextoExecucao(excel, otherExcel, sourceBase, destBase, allOrdersBase, zipFolder, parentZip, indiceInspetores,
+                sheetIndex, dryRun, overwriteExisting, zona, colunaNumero, colunaTipo, colunaData, placementMode, progresso, nomes, mesclagens, inspetorZipPai);
+    }
+
+    public ContextoExecucao comProgresso(ProgressoExecucao progresso) {
+        return new ContextoExecucao(excel, otherExcel, sourceBase, destBase, allOrdersBase, zipFolder, parentZip, indiceInspetores,
+                sheetIndex, dryRun, overwriteExisting, zona, colunaNumero, colunaTipo, colunaData, placementMode, progresso, nomes, mesclagens, inspetorZipPai);
+    }
+
+    public ContextoExecucao comMesclagens(MesclagensAdiadas mesclagens) {
+        return new ContextoExecucao(excel, otherExcel, sourceBase, destBase, allOrdersBase, zipFolder, parentZip, indiceInspetores,
+                sheetIndex, dryRun, overwriteExisting, zona, colunaNumero, colunaTipo, colunaData, placementMode, progresso, nomes, mesclagens, inspetorZipPai);
+    }
+
+    public ContextoExecucao comInspetorZipPai(String inspetorZipPai) {
+        return new ContextoExecucao(excel, otherExcel, sourceBase, destBase, allOrdersBase, zipFolder, parentZip, indiceInspetores,
+                sheetIndex, dryRun, overwriteExisting, zona, colunaNumero, colunaTipo, colunaData, placementMode, progresso, nomes, mesclagens, inspetorZipPai);
+    }
+
+    /**
+     * {@code <destBase>.indice-inspetores.tsv} na pasta acima de
+     * {@code destBase}; se o destino for a raiz do disco, a pasta do
+     * usuário.
+     */
+    private static Path indicePadrao(Path destBase) {
+        if (destBase == null) return null;
+        Path absoluto = destBase.toAbsolutePath().normalize();
+        Path nome = absoluto.getFileName();
+        if (nome == null) {
+            return Path.of(System.getProperty("user.home"), ".organizador" + SUFIXO_INDICE_PADRAO);
+        }
+        return absoluto.resolveSibling(nome + SUFIXO_INDICE_PADRAO);
+    }
+
+    private static Path caminho(String valor) {
+        return valor != null && !valor.isBlank() ? Path.of(valor) : null;
+    }
+}
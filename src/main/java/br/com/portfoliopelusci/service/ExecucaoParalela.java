@@ -0,0 +1,123 @@
+package br.com.portfoliopelusci.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de threads limitado e compartilhado por todas as execuções que o
+ * usam, de modo que o paralelismo configurado vale para a aplicação
+ * inteira e não para cada chamada. Tarefas enviadas a partir de uma thread
+ * do próprio pool rodam na thread chamadora, para que trabalho aninhado
+ * não espere por threads que ele mesmo ocupa.
+ */
+final class ExecucaoParalela {
+
+    /** Ação executada para cada item. */
+    @FunctionalInterface
+    interface Acao<T> {
+        void executar(T item) throws IOException;
+    }
+
+    /** Marca as threads pertencentes a cada pool. */
+    private final ThreadLocal<Boolean> threadDoPool = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param nome    prefixo do nome das threads
+     * @param threads quantidade máxima de threads do pool
+     */
+    ExecucaoParalela(String nome, int threads) {
+        this.threads = Math.max(1, threads);
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(() -> {
+                        threadDoPool.set(Boolean.TRUE);
+                        r.run();
+                    }, nome + "-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        // Threads ociosas são liberadas; o pool é recriado sob demanda
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Executa a ação para todos os itens no pool. Com um único item, pool
+     * de uma thread ou chamada feita por uma thread do próprio pool, tudo
+     * roda na thread chamadora. Na primeira falha as tarefas restantes são
+     * canceladas e a exceção original é repassada.
+     */
+    <T> void executar(List<T> itens, Acao<T> acao) throws IOException {
+        if (itens.isEmpty()) return;
+
+        if (threads == 1 || itens.size() == 1 || threadDoPool.get()) {
+            for (T item : itens) {
+                acao.executar(item);
+            }
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (T item : itens) {
+                futures.add(executor.submit(() -> {
+                    acao.executar(item);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                aguardar(f);
+            }
+        } finally {
+            // Em caso de falha interrompe as tarefas restantes desta chamada
+            for (Future<?> f : futures) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    /** Envia uma tarefa ao pool (ou a executa na hora, se chamada de dentro dele). */
+    <T> Future<T> submeter(Callable<T> tarefa) {
+        if (threadDoPool.get()) {
+            FutureTask<T> local = new FutureTask<>(tarefa);
+            local.run();
+            return local;
+        }
+        return executor.submit(tarefa);
+    }
+
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Aguarda uma tarefa assíncrona, repassando a exceção original
+     * quando ela falhar.
+     */
+    static void aguardar(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Processamento interrompido.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.portfoliopelusci.service;
+
+import br.com.portfoliopelusci.config.OrganizadorProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pools de threads do organizador, um por nível de trabalho e compartilhados
+ * por todas as requisições e jobs. Cada nível só envia tarefas ao nível
+ * seguinte (arquivos → extração/cópias), então o total de threads fica
+ * limitado a {@code archiveParallelism + zipParallelism + copyParallelism},
+ * independentemente de quantas execuções estejam em andamento. Os tamanhos
+ * são lidos na inicialização.
+ */
+@Component
+public class ExecutoresOrganizador {
+
+    private final ExecucaoParalela arquivos;
+    private final ExecucaoParalela extracao;
+    private final ExecucaoParalela copias;
+
+    public ExecutoresOrganizador(OrganizadorProperties props) {
+        this.arquivos = new ExecucaoParalela("organizador-arquivos", props.getArchiveParallelism());
+        this.extracao = new ExecucaoParalela("organizador-extracao", props.getZipParallelism());
+        this.copias = new ExecucaoParalela("organizador-copias", props.getCopyParallelism());
+    }
+
+    /** Arquivos ZIP (ou ZIPs internos do ZIP pai) processados ao mesmo tempo. */
+    ExecucaoParalela arquivos() {
+        return arquivos;
+    }
+
+    /** Entradas de ZIPs em disco descompactadas ao mesmo tempo. */
+    ExecucaoParalela extracao() {
+        return extracao;
+    }
+
+    /** Cópias de ordens executadas ao mesmo tempo. */
+    ExecucaoParalela copias() {
+        return copias;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        arquivos.encerrar();
+        extracao.encerrar();
+        copias.encerrar();
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.portfoliopelusci.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Extração de arquivos ZIP já presentes em disco. O diretório central é
+ * lido via {@link ZipFile}, o que permite descompactar as entradas em
+ * paralelo em vez de percorrer o arquivo sequencialmente.
+ */
+public final class ExtratorZip {
+
+    private ExtratorZip() {
+    }
+
+    /**
+     * Descompacta {@code zip} em {@code target} usando as threads do pool
+     * informado.
+     *
+     * @throws IOException se alguma entrada tentar escapar do diretório
+     *                     de destino (zip-slip) ou a extração falhar
+     */
+    static void extrair(Path zip, Path target, ExecucaoParalela pool) throws IOException {
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            // Valida todas as entradas e cria as pastas antes de extrair;
+            // entradas repetidas mantêm a última, como na leitura sequencial
+            Map<Path, ZipEntry> arquivos = new LinkedHashMap<>();
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                Path newPath = target.resolve(entry.getName()).normalize();
+                if (!newPath.startsWith(target)) {
+                    throw new IOException("Entrada inválida: " + entry.getName());
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(newPath);
+                } else {
+                    Files.createDirectories(newPath.getParent());
+                    arquivos.remove(newPath);
+                    arquivos.put(newPath, entry);
+                }
+            }
+
+            // Maiores primeiro para equilibrar a carga entre as threads
+            List<Map.Entry<Path, ZipEntry>> fila = new ArrayList<>(arquivos.entrySet());
+            fila.sort(Comparator.comparingLong((Map.Entry<Path, ZipEntry> e) -> e.getValue().getSize()).reversed());
+
+            pool.executar(fila, e -> {
+                try (InputStream in = zipFile.getInputStream(e.getValue())) {
+                    Files.copy(in, e.getKey(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            });
+        }
+    }
+}
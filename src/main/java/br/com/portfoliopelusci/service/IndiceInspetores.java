@@ -0,0 +1,273 @@
+package br.com.portfoliopelusci.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice WORDER → inspetor mantido em memória e gravado em disco entre
+ * execuções. Cada linha traz {@code worder<TAB>inspetor<TAB>pasta}, onde
+ * {@code pasta} é a pasta da ordem que originou a associação; linhas
+ * antigas, só com worder e inspetor, continuam aceitas. É atualizado
+ * conforme as ordens são colocadas, evitando varrer as pastas dos
+ * inspetores a cada atualização da planilha de saída.
+ *
+ * <p>O arquivo só recebe acréscimos: {@link #salvar()} anexa as associações
+ * alteradas desde a última gravação, e a última linha de cada ordem
+ * prevalece na leitura. Quando as linhas repetidas passam a dominar o
+ * arquivo, ele é regravado compactado. Como as pastas podem ser movidas ou
+ * apagadas fora da aplicação, {@link #buscar} confere se a pasta ainda
+ * existe antes de confiar na associação, e {@link #recarregarSeAlterado()}
+ * relê o arquivo quando outro processo o modificou.</p>
+ *
+ * <p>Várias instâncias da aplicação podem usar o mesmo arquivo. A gravação
+ * (releitura, acréscimo ou compactação) acontece com uma trava exclusiva
+ * ({@link FileChannel#lock()}) em um arquivo {@code .lock} ao lado do
+ * índice, que nunca é substituído; a leitura usa a mesma trava
+ * compartilhada. Assim a compactação de uma instância não descarta linhas
+ * anexadas por outra, e nenhuma lê uma linha pela metade.</p>
+ */
+public class IndiceInspetores {
+
+    /** Associação de uma ordem; {@code pasta} é {@code null} em linhas antigas. */
+    private record Registro(String inspetor, Path pasta) {
+    }
+
+    private final Path arquivo;
+    private final Path trava;
+    private final Map<String, Registro> inspetores = new ConcurrentHashMap<>();
+    private final List<String> pendentes = new ArrayList<>();
+    private long tamanhoConhecido = -1;
+    private FileTime modificacaoConhecida;
+    private int linhasNoArquivo;
+
+    private IndiceInspetores(Path arquivo) {
+        this.arquivo = arquivo;
+        this.trava = arquivo.resolveSibling(arquivo.getFileName() + ".lock");
+    }
+
+    /**
+     * Carrega o índice gravado em {@code arquivo}. Quando o arquivo ainda
+     * não existe o índice começa vazio e {@link #isNovo()} devolve
+     * {@code true}, para que o chamador o popule uma única vez.
+     */
+    public static IndiceInspetores carregar(Path arquivo) throws IOException {
+        IndiceInspetores indice = new IndiceInspetores(arquivo);
+        indice.recarregarSeAlterado();
+        return indice;
+    }
+
+    /** Indica se o índice ainda não foi gravado em disco. */
+    public boolean isNovo() {
+        return !Files.exists(arquivo);
+    }
+
+    /**
+     * Relê o arquivo se o tamanho ou a data de modificação mudaram desde a
+     * última leitura ou gravação feita por este índice (por exemplo, por
+     * outra instância da aplicação). As associações ainda não gravadas são
+     * mantidas, e as consultas em andamento não chegam a ver o índice vazio.
+     */
+    public synchronized void recarregarSeAlterado() throws IOException {
+        BasicFileAttributes atributos = atributos();
+        if (!alterado(atributos)) return;
+        if (atributos == null) {
+            // Arquivo removido: não há o que ler nem travar
+            recarregarComTrava();
+            return;
+        }
+        try (FileChannel canal = abrirTrava(); FileLock lock = canal.lock(0, Long.MAX_VALUE, true)) {
+            recarregarComTrava();
+        }
+    }
+
+    /** Releitura feita com a trava do arquivo já obtida. */
+    private void recarregarComTrava() throws IOException {
+        if (!alterado(atributos())) return;
+        Map<String, Registro> lidos = ler();
+        for (String linha : pendentes) {
+            aplicar(linha, lidos);
+        }
+        inspetores.keySet().retainAll(lidos.keySet());
+        inspetores.putAll(lidos);
+    }
+
+    /**
+     * Inspetor da ordem, ou {@code null} se ela não estiver no índice ou se a
+     * pasta que originou a associação não existir mais.
+     */
+    public String buscar(String worder) {
+        Registro registro = inspetores.get(worder);
+        if (registro == null) return null;
+        if (!valido(registro)) {
+            inspetores.remove(worder, registro);
+            return null;
+        }
+        return registro.inspetor();
+    }
+
+    /**
+     * Associa a ordem colocada em {@code pasta} ao inspetor (ordens de um ZIP
+     * pai); a colocação mais recente prevalece. Sincronizado com a releitura,
+     * para que o registro não se perca entre a leitura do arquivo e a troca
+     * do conteúdo em memória.
+     */
+    public synchronized void registrar(String worder, String inspetor, Path pasta) {
+        if (invalido(worder, inspetor)) return;
+        Registro novo = new Registro(inspetor, absoluto(pasta));
+        Registro anterior = inspetores.put(worder, novo);
+        if (!novo.equals(anterior)) anotar(worder, novo);
+    }
+
+    /**
+     * Registra a ordem apenas se ela ainda não estiver no índice (ou se a
+     * pasta do registro atual não existir mais).
+     */
+    public synchronized void registrarSeAusente(String worder, String inspetor, Path pasta) {
+        if (invalido(worder, inspetor)) return;
+        Registro novo = new Registro(inspetor, absoluto(pasta));
+        Registro atual = inspetores.compute(worder, (w, r) -> r != null && valido(r) ? r : novo);
+        if (atual == novo) anotar(worder, novo);
+    }
+
+    public int tamanho() {
+        return inspetores.size();
+    }
+
+    /**
+     * Anexa ao arquivo as associações alteradas desde a última gravação, de
+     * modo que o custo acompanha as mudanças e não o tamanho do índice. Se
+     * o arquivo tiver mais que o dobro de linhas das ordens indexadas, ele é
+     * regravado só com o estado atual, em um temporário movido sobre o
+     * anterior para que uma falha no meio não deixe o índice truncado.
+     */
+    public synchronized void salvar() throws IOException {
+        if (pendentes.isEmpty()) return;
+        Path parent = arquivo.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        try (FileChannel canal = abrirTrava(); FileLock lock = canal.lock()) {
+            // Com a trava, nenhuma outra instância grava entre a releitura e a
+            // gravação, e a compactação não descarta o que ela anexou
+            recarregarComTrava();
+            if (linhasNoArquivo + pendentes.size() > 2 * Math.max(inspetores.size(), 64)) {
+                compactar(parent);
+            } else {
+                try (BufferedWriter out = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (String linha : pendentes) {
+                        out.write(linha);
+                        out.newLine();
+                    }
+                }
+                linhasNoArquivo += pendentes.size();
+            }
+            pendentes.clear();
+            conhecer(atributos());
+        }
+    }
+
+    private FileChannel abrirTrava() throws IOException {
+        return FileChannel.open(trava, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /** Atributos do arquivo, ou {@code null} se ele ainda não existir. */
+    private BasicFileAttributes atributos() throws IOException {
+        try {
+            return Files.readAttributes(arquivo, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private boolean alterado(BasicFileAttributes atributos) {
+        if (atributos == null) return tamanhoConhecido != -1;
+        return atributos.size() != tamanhoConhecido || !atributos.lastModifiedTime().equals(modificacaoConhecida);
+    }
+
+    private void conhecer(BasicFileAttributes atributos) {
+        tamanhoConhecido = atributos != null ? atributos.size() : -1;
+        modificacaoConhecida = atributos != null ? atributos.lastModifiedTime() : null;
+    }
+
+    private void compactar(Path parent) throws IOException {
+        Path temp = Files.createTempFile(parent, ".indice-inspetores", ".tmp");
+        try {
+            int linhas = 0;
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Registro> e : inspetores.entrySet()) {
+                    out.write(linha(e.getKey(), e.getValue()));
+                    out.newLine();
+                    linhas++;
+                }
+            }
+            try {
+                Files.move(temp, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, arquivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+            linhasNoArquivo = linhas;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Map<String, Registro> ler() throws IOException {
+        Map<String, Registro> lidos = new HashMap<>();
+        linhasNoArquivo = 0;
+        BasicFileAttributes atributos = atributos();
+        if (atributos != null) {
+            try (BufferedReader in = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+                String linha;
+                while ((linha = in.readLine()) != null) {
+                    aplicar(linha, lidos);
+                    linhasNoArquivo++;
+                }
+            }
+        }
+        conhecer(atributos);
+        return lidos;
+    }
+
+    private static void aplicar(String linha, Map<String, Registro> destino) {
+        String[] campos = linha.split("\t", 3);
+        if (campos.length < 2 || campos[0].isEmpty() || campos[1].isEmpty()) return;
+        Path pasta = campos.length == 3 && !campos[2].isEmpty() ? Path.of(campos[2]) : null;
+        destino.put(campos[0], new Registro(campos[1], pasta));
+    }
+
+    private synchronized void anotar(String worder, Registro registro) {
+        pendentes.add(linha(worder, registro));
+    }
+
+    private static String linha(String worder, Registro registro) {
+        return worder + '\t' + registro.inspetor() + (registro.pasta() != null ? "\t" + registro.pasta() : "");
+    }
+
+    private static boolean valido(Registro registro) {
+        return registro.pasta() == null || Files.isDirectory(registro.pasta());
+    }
+
+    private static boolean invalido(String worder, String inspetor) {
+        return worder == null || worder.isBlank() || inspetor == null || inspetor.isBlank();
+    }
+
+    private static Path absoluto(Path pasta) {
+        return pasta != null ? pasta.toAbsolutePath().normalize() : null;
+    }
+}
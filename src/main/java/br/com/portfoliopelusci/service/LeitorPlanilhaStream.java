@@ -0,0 +1,222 @@
+package br.com.portfoliopelusci.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de planilhas XLSX baseado no modelo de eventos (SAX) do POI.
+ * As linhas são entregues uma a uma ao {@link Visitante}, sem montar o
+ * workbook inteiro em memória, de modo que o consumo de heap não depende
+ * do tamanho da aba.
+ */
+public final class LeitorPlanilhaStream {
+
+    /** Recebe o cabeçalho e, em seguida, cada linha de dados da aba. */
+    public interface Visitante {
+
+        /**
+         * Chamado uma única vez, antes das linhas de dados.
+         *
+         * @param nomeAba nome da aba lida
+         * @param colunas nomes do cabeçalho, indexados pela coluna
+         * @param numeroLinha linha do cabeçalho no Excel (base 1): a primeira
+         *                    linha preenchida, que nem sempre é a linha 1
+         */
+        default void cabecalho(String nomeAba, String[] colunas, int numeroLinha) {
+        }
+
+        void linha(Linha linha) throws IOException;
+    }
+
+    /**
+     * Linha de dados lida da planilha.
+     *
+     * @param numero número da linha no Excel (base 1)
+     * @param valores valores formatados de cada coluna do cabeçalho
+     * @param datas datas de células com formato de data nativo do Excel
+     */
+    public record Linha(int numero, String[] valores, LocalDate[] datas) {
+
+        /** Valor formatado da coluna, ou vazio quando a célula não existe. */
+        public String texto(int coluna) {
+            if (coluna < 0 || coluna >= valores.length || valores[coluna] == null) return "";
+            return valores[coluna];
+        }
+
+        /** Data nativa da coluna, ou {@code null} quando a célula não é uma data. */
+        public LocalDate data(int coluna) {
+            if (coluna < 0 || coluna >= datas.length) return null;
+            return datas[coluna];
+        }
+    }
+
+    private LeitorPlanilhaStream() {
+    }
+
+    /**
+     * Percorre a aba informada entregando o cabeçalho (primeira linha
+     * encontrada) e as linhas seguintes ao visitante.
+     *
+     * @param excel arquivo XLSX
+     * @param sheetIndex índice da aba (base 0)
+     * @param visitante consumidor das linhas
+     */
+    public static void ler(Path excel, int sheetIndex, Visitante visitante) throws IOException {
+        if (!lerSeHouverCabecalho(excel, sheetIndex, visitante)) {
+            throw new IllegalArgumentException("Cabeçalho não encontrado na planilha.");
+        }
+    }
+
+    /**
+     * Variante de {@link #ler(Path, int, Visitante)} que aceita abas vazias.
+     *
+     * @return {@code false} quando a aba não tem nenhuma linha (o visitante
+     *         não é chamado)
+     */
+    public static boolean lerSeHouverCabecalho(Path excel, int sheetIndex, Visitante visitante) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(excel.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            int atual = 0;
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    if (atual++ != sheetIndex) continue;
+
+                    FormatadorComDatas fmt = new FormatadorComDatas();
+                    Coletor coletor = new Coletor(sheets.getSheetName(), fmt, visitante);
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, coletor, fmt, false));
+                    parser.parse(new InputSource(sheet));
+                    return coletor.cabecalhoLido;
+                }
+            }
+            throw new IllegalArgumentException("Aba " + sheetIndex + " não encontrada no Excel.");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Erro ao ler planilha: " + excel + " -> " + e.getMessage(), e);
+        }
+    }
+
+    /** Nomes das abas do arquivo, na ordem em que aparecem. */
+    public static List<String> abas(Path excel) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(excel.toFile(), PackageAccess.READ)) {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            List<String> nomes = new ArrayList<>();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                nomes.add(sheets.getSheetName());
+            }
+            return nomes;
+        } catch (OpenXML4JException e) {
+            throw new IOException("Erro ao ler planilha: " + excel + " -> " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Formatador que, além do texto exibido, guarda a última data nativa
+     * formatada para que o coletor consiga associá-la à célula corrente.
+     */
+    private static final class FormatadorComDatas extends DataFormatter {
+        private LocalDate ultimaData;
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                ultimaData = DateUtil.getLocalDateTime(value).toLocalDate();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString);
+        }
+
+        LocalDate consumirData() {
+            LocalDate d = ultimaData;
+            ultimaData = null;
+            return d;
+        }
+    }
+
+    /** Converte os eventos de célula em linhas completas. */
+    private static final class Coletor implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final String nomeAba;
+        private final FormatadorComDatas fmt;
+        private final Visitante visitante;
+
+        private boolean cabecalhoLido;
+        private final List<String> cabecalho = new ArrayList<>();
+        private int largura;
+        private String[] valores;
+        private LocalDate[] datas;
+        private int proximaColuna;
+
+        Coletor(String nomeAba, FormatadorComDatas fmt, Visitante visitante) {
+            this.nomeAba = nomeAba;
+            this.fmt = fmt;
+            this.visitante = visitante;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            proximaColuna = 0;
+            if (cabecalhoLido) {
+                valores = new String[largura];
+                datas = new LocalDate[largura];
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int coluna = cellReference != null ? new CellReference(cellReference).getCol() : proximaColuna;
+            proximaColuna = coluna + 1;
+            LocalDate data = fmt.consumirData();
+
+            if (!cabecalhoLido) {
+                while (cabecalho.size() <= coluna) cabecalho.add("");
+                cabecalho.set(coluna, formattedValue);
+                return;
+            }
+            if (coluna >= largura) return;
+            valores[coluna] = formattedValue;
+            datas[coluna] = data;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!cabecalhoLido) {
+                cabecalhoLido = true;
+                largura = cabecalho.size();
+                visitante.cabecalho(nomeAba, cabecalho.toArray(new String[0]), rowNum + 1);
+                return;
+            }
+            try {
+                visitante.linha(new Linha(rowNum + 1, valores, datas));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.portfoliopelusci.service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Atualizações da planilha de saída acumuladas durante uma execução com
+ * vários arquivos (ZIP pai, pasta de ZIPs). Cada {@code processar} interno
+ * registra a atualização aqui em vez de reescrever a planilha; pedidos
+ * iguais são unificados e aplicados uma única vez ao final.
+ */
+public class MesclagensAdiadas {
+
+    /** Atualização pendente: linhas de {@code source} ausentes em {@code dest}. */
+    public record Mesclagem(IndiceInspetores indice, Path source, Path dest, int sheetIndex, boolean dryRun) {
+    }
+
+    private final Set<Mesclagem> pendentes = new LinkedHashSet<>();
+
+    public synchronized void adiar(Mesclagem mesclagem) {
+        pendentes.add(mesclagem);
+    }
+
+    /** Devolve as atualizações pendentes, na ordem de registro, e esvazia o acúmulo. */
+    public synchronized List<Mesclagem> retirar() {
+        List<Mesclagem> lista = new ArrayList<>(pendentes);
+        pendentes.clear();
+        return lista;
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.portfoliopelusci.service;
+
+import java.util.Locale;
+
+/**
+ * Regras de nome dos ZIPs de inspetor, sejam os internos de um ZIP pai ou
+ * os enviados sozinhos. São compartilhadas pela organização das pastas
+ * ({@link OrganizadorService}) e por todos os caminhos de importação de
+ * fotos, para que o mesmo ZIP leve sempre ao mesmo inspetor.
+ */
+public final class NomesZipPai {
+
+    private NomesZipPai() {
+    }
+
+    /**
+     * Inspetor de um ZIP: a parte do nome depois do primeiro
+     * {@code '-'} (o prefixo costuma ser a data do lote), sem a extensão e
+     * com só a primeira letra maiúscula. {@code "20250806-JOHN.zip"} vira
+     * {@code "John"}; sem {@code '-'}, vale o nome inteiro.
+     */
+    public static String inspetor(String nomeZip) {
+        String parte = semExtensao(nomeZip);
+        int dash = parte.indexOf('-');
+        if (dash >= 0 && dash + 1 < parte.length()) {
+            parte = parte.substring(dash + 1);
+        }
+        parte = parte.trim();
+        if (parte.isEmpty()) return parte;
+        return parte.substring(0, 1).toUpperCase(Locale.ROOT) + parte.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    /** Nome do ZIP sem a extensão {@code .zip}, em qualquer caixa. */
+    public static String semExtensao(String nomeZip) {
+        return nomeZip.toLowerCase(Locale.ROOT).endsWith(".zip")
+                ? nomeZip.substring(0, nomeZip.length() - 4)
+                : nomeZip;
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.portfoliopelusci.service;
+
+import br.com.portfoliopelusci.config.OrganizadorProperties;
+import br.com.portfoliopelusci.dto.JobStatusResponse;
+import br.com.portfoliopelusci.exceptions.FilaCheiaException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executa as operações do organizador em segundo plano. Cada envio
+ * recebe um id imediatamente e é processado por um pool limitado;
+ * o andamento pode ser consultado enquanto o job roda.
+ */
+@Service
+public class OrganizadorJobService {
+
+    /** Jobs finalizados ficam disponíveis para consulta por este período. */
+    private static final Duration RETENCAO = Duration.ofHours(24);
+
+    public enum Estado {
+        PENDENTE,
+        EXECUTANDO,
+        CONCLUIDO,
+        ERRO
+    }
+
+    /** Trabalho executado pelo job. */
+    @FunctionalInterface
+    public interface Tarefa {
+        void executar(ProgressoExecucao progresso) throws Exception;
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String tipo;
+        private final ProgressoExecucao progresso = new ProgressoExecucao();
+        private volatile Estado estado = Estado.PENDENTE;
+        private volatile Instant inicio;
+        private volatile Instant fim;
+        private volatile String erro;
+
+        Job(String id, String tipo) {
+            this.id = id;
+            this.tipo = tipo;
+        }
+    }
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    public OrganizadorJobService(OrganizadorProperties props) {
+        int threads = Math.max(1, props.getJobThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, props.getJobQueueCapacity())));
+    }
+
+    /**
+     * Enfileira a tarefa e devolve a situação inicial do job.
+     *
+     * @throws FilaCheiaException quando a fila de jobs está cheia
+     */
+    public JobStatusResponse submeter(String tipo, Tarefa tarefa) {
+        removerExpirados();
+
+        Job job = new Job(UUID.randomUUID().toString(), tipo);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> executar(job, tarefa));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new FilaCheiaException("Fila de jobs cheia. Tente novamente mais tarde.");
+        }
+        log("JOB " + job.id + " enfileirado (" + tipo + ")");
+        return status(job);
+    }
+
+    public Optional<JobStatusResponse> consultar(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(OrganizadorJobService::status);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private static void executar(Job job, Tarefa tarefa) {
+        job.inicio = Instant.now();
+        job.estado = Estado.EXECUTANDO;
+        try {
+            tarefa.executar(job.progresso);
+            job.estado = Estado.CONCLUIDO;
+        } catch (Exception e) {
+            e.printStackTrace();
+            job.erro = e.getMessage();
+            job.estado = Estado.ERRO;
+        } finally {
+            job.fim = Instant.now();
+            log("JOB " + job.id + " finalizado: " + job.estado);
+        }
+    }
+
+    private void removerExpirados() {
+        Instant limite = Instant.now().minus(RETENCAO);
+        jobs.values().removeIf(j -> j.fim != null && j.fim.isBefore(limite));
+    }
+
+    private static JobStatusResponse status(Job job) {
+        Instant inicio = job.inicio;
+        Instant fim = job.fim != null ? job.fim : Instant.now();
+        long decorrido = inicio != null ? Duration.between(inicio, fim).toMillis() : 0L;
+        return new JobStatusResponse(job.id, job.tipo, job.estado.name(),
+                job.progresso.getLinhasProcessadas(), job.progresso.getBytesCopiados(), decorrido, job.erro);
+    }
+
+    /** Escreve uma mensagem simples no console. */
+    private static void log(String s) {
+        System.out.println(s);
+    }
+}
@@ -2,19 +2,25 @@ package br.com.portfoliopelusci.service;
 
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import br.com.portfoliopelusci.config.OrganizadorProperties;
+import br.com.portfoliopelusci.config.OrganizadorProperties.PlacementMode;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.text.Normalizer;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
@@ -32,13 +38,39 @@ public class OrganizadorService {
     /** Configurações injetadas a partir do arquivo de propriedades. */
     private final OrganizadorProperties props;
 
+    /** Linhas de planilhas já lidas, reaproveitadas enquanto o arquivo não muda. */
+    private final CachePlanilha cachePlanilha;
+
+    /** Travas por planilha de saída, para que atualizações simultâneas não se percam. */
+    private final Map<Path, Object> travasPlanilha = new ConcurrentHashMap<>();
+
+    /** Pools de threads compartilhados pelas execuções. */
+    private final ExecutoresOrganizador executores;
+
+    /** Índices WORDER → inspetor já carregados, por arquivo. */
+    private final Map<Path, IndiceInspetores> indicesInspetores = new HashMap<>();
+
     /**
      * Construtor padrão que recebe as propriedades de configuração.
      *
      * @param props configurações utilizadas pelo serviço
      */
     public OrganizadorService(OrganizadorProperties props) {
+        this(props, new ExecutoresOrganizador(props));
+    }
+
+    /**
+     * Construtor usado pelo Spring, com os pools de threads compartilhados
+     * da aplicação.
+     *
+     * @param props      configurações utilizadas pelo serviço
+     * @param executores pools de threads do organizador
+     */
+    @Autowired
+    public OrganizadorService(OrganizadorProperties props, ExecutoresOrganizador executores) {
         this.props = props;
+        this.executores = executores;
+        this.cachePlanilha = new CachePlanilha(props::getCachePlanilhaMaxBytes);
     }
 
     /**
@@ -47,18 +79,28 @@ public class OrganizadorService {
      * urgência calculada.
      */
     public void processar() throws IOException {
+        processar(ContextoExecucao.de(props));
+    }
+
+    /**
+     * Variante de {@link #processar()} que usa os caminhos e opções do
+     * contexto informado, sem depender do estado global de configuração.
+     */
+    public void processar(ContextoExecucao ctx) throws IOException {
         // Caminho do Excel e diretórios de origem/destino
-        Path excel      = Path.of(props.getExcelPath());
-        Path sourceBase = Path.of(props.getSourceBasePath());
-        Path destBase   = Path.of(props.getDestBasePath());
-        int sheetIndex  = props.getSheetIndex();
-        boolean dryRun  = props.isDryRun();
+        Path excel      = ctx.excel();
+        Path sourceBase = ctx.sourceBase();
+        Path destBase   = ctx.destBase();
+        int sheetIndex  = ctx.sheetIndex();
+        boolean dryRun  = ctx.dryRun();
+        PlacementMode modo = ctx.placementMode();
+        ProgressoExecucao progresso = ctx.progresso();
 
         // Valida existência dos caminhos configurados
-        if (!Files.exists(excel)) {
+        if (excel == null || !Files.exists(excel)) {
             throw new IllegalArgumentException("Planilha não encontrada: " + excel);
         }
-        if (!Files.isDirectory(sourceBase)) {
+        if (sourceBase == null || !Files.isDirectory(sourceBase)) {
             throw new IllegalArgumentException("Pasta de origem inválida: " + sourceBase);
         }
         // Garante que a pasta de destino exista
@@ -71,60 +113,61 @@ public class OrganizadorService {
             restantes = stream.filter(Files::isDirectory).collect(Collectors.toSet());
         }
 
-        // Define timezone para operações com datas (padrão: São Paulo)
-        String tz = "America/Sao_Paulo";
-        try {
-            String configuredTz = (props.getTimezone() != null && !props.getTimezone().isBlank())
-                    ? props.getTimezone() : "America/Sao_Paulo";
-            ZoneId.of(configuredTz); // valida
-            tz = configuredTz;
-        } catch (Exception ignored) {}
-        ZoneId zone = ZoneId.of(tz);
-        LocalDate hoje = LocalDate.now(zone);
-
-        try (Workbook wb = new XSSFWorkbook(Files.newInputStream(excel))) {
-            // Abre a aba desejada da planilha
-            Sheet sheet = wb.getSheetAt(sheetIndex);
-            if (sheet == null) throw new IllegalArgumentException("Aba " + sheetIndex + " não encontrada no Excel.");
-
-            DataFormatter fmt = new DataFormatter();
-            Row header = sheet.getRow(sheet.getFirstRowNum());
-            if (header == null) throw new IllegalArgumentException("Cabeçalho não encontrado na planilha.");
-            // Mapeia os índices das colunas pelo nome do cabeçalho
-            Map<String, Integer> map = mapHeader(header, fmt);
-
-            String hNumero = props.getColumns() != null ? props.getColumns().getNumero() : "WORDER";
-            String hTipo   = props.getColumns() != null ? props.getColumns().getTipo()   : "OTYPE";
-            String hData   = (props.getColumns() != null && props.getColumns().getData() != null && !props.getColumns().getData().isBlank())
-                    ? props.getColumns().getData() : "DUEDATE";
-
-            int idxNumero = idx(map, hNumero);
-            int idxTipo   = idx(map, hTipo);
-            int idxData   = idx(map, hData);
-
-            int first = sheet.getFirstRowNum() + 1;
-            int last  = sheet.getLastRowNum();
-
-            // Percorre todas as linhas de dados da planilha
-            for (int r = first; r <= last; r++) {
-                Row row = sheet.getRow(r);
-                if (row == null) continue;
+        // Data de referência no timezone da execução (padrão: São Paulo)
+        LocalDate hoje = LocalDate.now(ctx.zona());
+
+        String hNumero = ctx.colunaNumero();
+        String hTipo   = ctx.colunaTipo();
+        String hData   = ctx.colunaData();
+
+        // As ordens colocadas ficam associadas ao inspetor. O inspetor do ZIP
+        // pai é definitivo; o nome da pasta acima da origem só vale para
+        // ordens que ainda não estão no índice (as pastas de inspetores em
+        // destBase têm prioridade)
+        IndiceInspetores indice = indiceInspetores(ctx);
+        String inspetorOrigem = sourceBase.getNameCount() > 1 ? sourceBase.getParent().getFileName().toString() : null;
+
+        // Cópias planejadas durante a leitura; os nomes de destino são
+        // reservados no disco pelo alocador, valendo contra execuções paralelas
+        List<CopiaPlanejada> copias = new ArrayList<>();
+        AlocadorNomes nomes = ctx.nomes();
+        Set<Path> origensMovidas = new HashSet<>();
+
+        // Percorre a planilha linha a linha (cache ou modelo de eventos), sem carregar o workbook inteiro
+        cachePlanilha.ler(excel, sheetIndex, new LeitorPlanilhaStream.Visitante() {
+            private int idxNumero;
+            private int idxTipo;
+            private int idxData;
+
+            @Override
+            public void cabecalho(String nomeAba, String[] colunas, int numeroLinha) {
+                // Mapeia os índices das colunas pelo nome do cabeçalho
+                Map<String, Integer> map = mapHeader(colunas);
+                idxNumero = idx(map, hNumero);
+                idxTipo   = idx(map, hTipo);
+                idxData   = idx(map, hData);
+            }
+
+            @Override
+            public void linha(LeitorPlanilhaStream.Linha row) throws IOException {
+                int r = row.numero();
+                progresso.linhaProcessada();
 
                 // Lê número, tipo e data de vencimento da linha
-                String numero = fmt.formatCellValue(row.getCell(idxNumero)).trim();
-                String tipo   = fmt.formatCellValue(row.getCell(idxTipo)).trim();
-                LocalDate due = readLocalDate(row.getCell(idxData), fmt, zone);
+                String numero = row.texto(idxNumero).trim();
+                String tipo   = row.texto(idxTipo).trim();
+                LocalDate due = readLocalDate(row, idxData);
 
                 if (numero.isBlank()) {
-                    log("AVISO (linha " + (r+1) + "): Numero vazio. Ignorando.");
-                    continue;
+                    log("AVISO (linha " + r + "): Numero vazio. Ignorando.");
+                    return;
                 }
                 if (tipo.isBlank()) {
-                    log("AVISO (linha " + (r+1) + "): Tipo vazio (Numero=" + numero + "). Ignorando.");
-                    continue;
+                    log("AVISO (linha " + r + "): Tipo vazio (Numero=" + numero + "). Ignorando.");
+                    return;
                 }
                 if (due == null) {
-                    log("AVISO (linha " + (r+1) + "): Data inválida (Numero=" + numero + "). Usando URGENCIA=SEM_DATA.");
+                    log("AVISO (linha " + r + "): Data inválida (Numero=" + numero + "). Usando URGENCIA=SEM_DATA.");
                 }
 
                 // Calcula a urgência (R=atrasado, Y=hoje, B=futuro, N=sem data)
@@ -133,47 +176,76 @@ public class OrganizadorService {
                 // Pasta origem (original) pelo número
                 Path src = sourceBase.resolve(numero);
                 if (!Files.exists(src) || !Files.isDirectory(src)) {
-                    log("AVISO (linha " + (r+1) + "): Pasta da ordem não encontrada: " + src);
-                    continue;
+                    log("AVISO (linha " + r + "): Pasta da ordem não encontrada: " + src);
+                    return;
                 }
                 restantes.remove(src);
 
+                // Ao mover, a pasta só pode ser colocada uma vez
+                if (modo == PlacementMode.MOVE && !origensMovidas.add(src)) {
+                    log("AVISO (linha " + r + "): Ordem repetida na planilha, já movida: " + src);
+                    return;
+                }
+
                 // Pasta de destino por tipo
                 Path tipoDir = destBase.resolve(safeName(tipo));
 
                 // Nome final: NUMERO TIPO URGENCIA
                 String finalName = safeName((numero + " " + tipo + " " + urg).trim());
 
-                Path dest = uniquePath(tipoDir.resolve(finalName));
+                // Reserva o nome já no planejamento para que o resultado seja
+                // o mesmo de uma execução sequencial
+                Path dest = nomes.alocar(tipoDir.resolve(finalName), dryRun);
 
                 if (dryRun) {
-                    log("[DRY-RUN] Copiar: " + src + " -> " + dest + " (DUEDATE=" + (due != null ? due : "-") + ", urg=" + urg + ")");
+                    log("[DRY-RUN] " + modo + ": " + src + " -> " + dest + " (DUEDATE=" + (due != null ? due : "-") + ", urg=" + urg + ")");
                 } else {
-                    Files.createDirectories(tipoDir);
-                    copyDirectory(src, dest);
-                    log("COPIADO: " + src.getFileName() + " -> " + tipoDir.getFileName() + "/" + dest.getFileName() + " (urg=" + urg + ")");
+                    copias.add(new CopiaPlanejada(numero, src, tipoDir, dest, urg, modo));
                 }
             }
+        });
+
+        // Executa as cópias planejadas em paralelo
+        executarCopias(copias, progresso);
+
+        // Só ordens efetivamente colocadas entram no índice (nunca em dry-run)
+        for (CopiaPlanejada copia : copias) {
+            if (!copia.numero().chars().allMatch(Character::isDigit)) continue;
+            if (ctx.inspetorZipPai() != null) {
+                indice.registrar(copia.numero(), ctx.inspetorZipPai(), copia.dest());
+            } else {
+                indice.registrarSeAusente(copia.numero(), inspetorOrigem, copia.dest());
+            }
         }
 
         // Move as pastas que não estavam na planilha para uma pasta especial
         Path semDocDir = sourceBase.resolve(safeName("não tem no documento"));
         Files.createDirectories(semDocDir);
         for (Path dir : restantes) {
-            Path destino = uniquePath(semDocDir.resolve(dir.getFileName()));
+            Path destino = nomes.alocar(semDocDir.resolve(dir.getFileName()), dryRun);
             if (dryRun) {
                 log("[DRY-RUN] Mover: " + dir.getFileName() + " -> " + semDocDir.getFileName() + "/" + destino.getFileName());
             } else {
-                Files.move(dir, destino);
+                // Substitui só a pasta vazia reservada pelo alocador
+                Files.move(dir, destino, StandardCopyOption.REPLACE_EXISTING);
             }
             log("SEM PLANILHA: " + dir.getFileName());
         }
 
-        // Atualiza outra planilha adicionando entradas ausentes
-        String otherPath = props.getOtherExcelPath();
-        if (otherPath != null && !otherPath.isBlank()) {
-            Path other = Path.of(otherPath);
-            mergeMissingRows(excel, other, sheetIndex, dryRun);
+        // Atualiza outra planilha adicionando entradas ausentes; em execuções
+        // com vários arquivos a atualização fica para o final
+        if (ctx.otherExcel() != null) {
+            MesclagensAdiadas.Mesclagem mesclagem =
+                    new MesclagensAdiadas.Mesclagem(indice, excel, ctx.otherExcel(), sheetIndex, dryRun);
+            if (ctx.mesclagens() != null) {
+                ctx.mesclagens().adiar(mesclagem);
+            } else {
+                mergeMissingRows(mesclagem);
+            }
+        }
+
+        if (!dryRun) {
+            indice.salvar();
         }
 
     }
@@ -184,44 +256,41 @@ public class OrganizadorService {
      * e cria uma pasta com esse nome dentro de {@code sourceBasePath}.
      */
     public void criarPastas() throws IOException {
+        criarPastas(ContextoExecucao.de(props));
+    }
+
+    /**
+     * Variante de {@link #criarPastas()} que usa o contexto informado.
+     */
+    public void criarPastas(ContextoExecucao ctx) throws IOException {
         // Caminhos e configuração básica
-        Path excel      = Path.of(props.getExcelPath());
-        Path baseDir    = Path.of(props.getSourceBasePath());
-        int sheetIndex  = props.getSheetIndex();
-        boolean dryRun  = props.isDryRun();
+        Path excel      = ctx.excel();
+        Path baseDir    = ctx.sourceBase();
+        int sheetIndex  = ctx.sheetIndex();
+        boolean dryRun  = ctx.dryRun();
 
         // Garante existência dos arquivos/pastas necessários
-        if (!Files.exists(excel)) {
+        if (excel == null || !Files.exists(excel)) {
             throw new IllegalArgumentException("Planilha não encontrada: " + excel);
         }
         Files.createDirectories(baseDir);
 
-        try (Workbook wb = new XSSFWorkbook(Files.newInputStream(excel))) {
-            Sheet sheet = wb.getSheetAt(sheetIndex);
-            if (sheet == null) {
-                throw new IllegalArgumentException("Aba " + sheetIndex + " não encontrada no Excel.");
-            }
-
-            DataFormatter fmt = new DataFormatter();
-            Row header = sheet.getRow(sheet.getFirstRowNum());
-            if (header == null) {
-                throw new IllegalArgumentException("Cabeçalho não encontrado na planilha.");
-            }
-            // Obtém índice da coluna com o número da ordem
-            Map<String, Integer> map = mapHeader(header, fmt);
+        String hNumero = ctx.colunaNumero();
 
-            String hNumero = props.getColumns() != null ? props.getColumns().getNumero() : "WORDER";
-            int idxNumero = idx(map, hNumero);
+        cachePlanilha.ler(excel, sheetIndex, new LeitorPlanilhaStream.Visitante() {
+            private int idxNumero;
 
-            int first = sheet.getFirstRowNum() + 1;
-            int last  = sheet.getLastRowNum();
-            // Para cada linha cria uma pasta com o número informado
-            for (int r = first; r <= last; r++) {
-                Row row = sheet.getRow(r);
-                if (row == null) continue;
+            @Override
+            public void cabecalho(String nomeAba, String[] colunas, int numeroLinha) {
+                // Obtém índice da coluna com o número da ordem
+                idxNumero = idx(mapHeader(colunas), hNumero);
+            }
 
-                String numero = fmt.formatCellValue(row.getCell(idxNumero)).trim();
-                if (numero.isBlank()) continue;
+            @Override
+            public void linha(LeitorPlanilhaStream.Linha row) throws IOException {
+                // Para cada linha cria uma pasta com o número informado
+                String numero = row.texto(idxNumero).trim();
+                if (numero.isBlank()) return;
 
                 Path dir = baseDir.resolve(safeName(numero));
                 if (Files.exists(dir)) {
@@ -233,7 +302,7 @@ public class OrganizadorService {
                     log("PASTA CRIADA: " + dir.getFileName());
                 }
             }
-        }
+        });
     }
 
     /**
@@ -241,19 +310,40 @@ public class OrganizadorService {
      * método {@link #processar()} sobre o conteúdo extraído.
      */
     public void processarZip(MultipartFile zip) throws IOException {
+        processarZip(zip, ContextoExecucao.de(props));
+    }
+
+    /**
+     * Variante de {@link #processarZip(MultipartFile)} que usa o contexto
+     * informado.
+     */
+    public void processarZip(MultipartFile zip, ContextoExecucao ctx) throws IOException {
+        try (InputStream in = zip.getInputStream()) {
+            processarZip(zip.getOriginalFilename(), in, ctx);
+        }
+    }
+
+    /**
+     * Variante de {@link #processarZip(MultipartFile)} que extrai o ZIP
+     * enquanto ele é lido do stream informado (por exemplo, o corpo da
+     * requisição), sem gravar o upload inteiro em disco antes.
+     *
+     * @param filename nome do ZIP, usado para nomear a pasta de extração
+     */
+    public void processarZip(String filename, InputStream in, ContextoExecucao ctx) throws IOException {
         // Diretório base onde o conteúdo será extraído
-        Path sourceRoot = Path.of(props.getSourceBasePath());
+        Path sourceRoot = ctx.sourceBase();
         Files.createDirectories(sourceRoot);
 
-        String filename = zip.getOriginalFilename() != null ? zip.getOriginalFilename() : "upload.zip";
+        if (filename == null || filename.isBlank()) filename = "upload.zip";
+        // Só o nome: o valor pode vir de um parâmetro da requisição
+        filename = Path.of(filename).getFileName().toString();
         String baseName = filename.endsWith(".zip") ? filename.substring(0, filename.length() - 4) : filename;
-        Path unzipDir = uniquePath(sourceRoot.resolve(baseName));
+        Path unzipDir = ctx.nomes().alocar(sourceRoot.resolve(baseName), false);
 
         // Garante que a pasta exista, mesmo que o ZIP esteja vazio
         Files.createDirectories(unzipDir);
-        try (InputStream in = zip.getInputStream()) {
-            unzip(in, unzipDir);
-        }
+        unzip(in, unzipDir);
 
         // Se algo deu errado na extração aborta o processamento
         if (!Files.exists(unzipDir)) {
@@ -275,25 +365,33 @@ public class OrganizadorService {
         }
 
         // Processa o conteúdo extraído reutilizando o método principal
-        String originalSource = props.getSourceBasePath();
-        try {
-            props.setSourceBasePath(unzipDir.toString());
-            processar();
-        } finally {
-            props.setSourceBasePath(originalSource);
-        }
+        processar(ctx.comOrigem(unzipDir));
+    }
+
+    /**
+     * Processa um arquivo ZIP já gravado em disco (por exemplo, um upload
+     * recebido por um job assíncrono), como em {@link #processarZips()}.
+     */
+    public void processarZipArquivo(Path zipPath, ContextoExecucao ctx) throws IOException {
+        processZipFile(zipPath, ctx);
     }
 
     /**
      * Processa todos os arquivos ZIP encontrados na pasta configurada,
-     * executando {@link #processZipFile(Path)} para cada um deles.
+     * executando {@link #processZipFile(Path, ContextoExecucao)} para cada um deles.
      */
     public void processarZips() throws IOException {
-        String zipFolderPath = props.getZipFolderPath();
-        if (zipFolderPath == null || zipFolderPath.isBlank()) {
+        processarZips(ContextoExecucao.de(props));
+    }
+
+    /**
+     * Variante de {@link #processarZips()} que usa o contexto informado.
+     */
+    public void processarZips(ContextoExecucao ctx) throws IOException {
+        Path zipsDir = ctx.zipFolder();
+        if (zipsDir == null) {
             throw new IllegalArgumentException("Caminho da pasta de ZIPs não definido.");
         }
-        Path zipsDir = Path.of(zipFolderPath);
         if (!Files.exists(zipsDir) || !Files.isDirectory(zipsDir)) {
             throw new IllegalArgumentException("Pasta de ZIPs não encontrada: " + zipsDir);
         }
@@ -310,29 +408,28 @@ public class OrganizadorService {
             return;
         }
 
-        // Processa cada arquivo ZIP individualmente
-        for (Path zipPath : zipFiles) {
-            processZipFile(zipPath);
-        }
+        // Processa os arquivos ZIP em paralelo; os nomes de destino são
+        // reservados no contexto compartilhado e a planilha de saída é
+        // atualizada uma única vez ao final
+        comMesclagemAdiada(ctx, adiado -> executores.arquivos().executar(zipFiles,
+                zipPath -> processZipFile(zipPath, adiado)));
     }
 
     /**
      * Processa um arquivo ZIP localizado no sistema de arquivos.
      * O conteúdo é extraído e tratado pelo método {@link #processar()}.
      */
-    private void processZipFile(Path zipPath) throws IOException {
-        Path sourceRoot = Path.of(props.getSourceBasePath());
+    private void processZipFile(Path zipPath, ContextoExecucao ctx) throws IOException {
+        Path sourceRoot = ctx.sourceBase();
         Files.createDirectories(sourceRoot);
 
         String filename = zipPath.getFileName().toString();
         String baseName = filename.endsWith(".zip") ? filename.substring(0, filename.length() - 4) : filename;
-        Path unzipDir = uniquePath(sourceRoot.resolve(baseName));
+        Path unzipDir = ctx.nomes().alocar(sourceRoot.resolve(baseName), false);
 
         // Extrai o ZIP para uma pasta temporária
         Files.createDirectories(unzipDir);
-        try (InputStream in = Files.newInputStream(zipPath)) {
-            unzip(in, unzipDir);
-        }
+        ExtratorZip.extrair(zipPath, unzipDir, executores.extracao());
 
         // Verifica se a extração ocorreu corretamente
         if (!Files.exists(unzipDir)) {
@@ -354,13 +451,7 @@ public class OrganizadorService {
         }
 
         // Processa as ordens extraídas reutilizando método principal
-        String originalSource = props.getSourceBasePath();
-        try {
-            props.setSourceBasePath(unzipDir.toString());
-            processar();
-        } finally {
-            props.setSourceBasePath(originalSource);
-        }
+        processar(ctx.comOrigem(unzipDir));
     }
 
     /**
@@ -385,18 +476,17 @@ public class OrganizadorService {
                     .filter(p -> Files.isRegularFile(p) && p.toString().toLowerCase().endsWith(".zip"))
                     .collect(Collectors.toList());
 
-            for (Path zipPath : zips) {
+            // Cada ZIP vai para sua própria subpasta, então podem ser extraídos em paralelo
+            executores.arquivos().executar(zips, zipPath -> {
                 String fileName = zipPath.getFileName().toString();
                 String baseName = fileName.endsWith(".zip") ? fileName.substring(0, fileName.length() - 4) : fileName;
                 Path targetDir = dir.resolve(baseName);
                 Files.createDirectories(targetDir);
-                try (InputStream in = Files.newInputStream(zipPath)) {
-                    unzip(in, targetDir);
-                }
+                ExtratorZip.extrair(zipPath, targetDir, executores.extracao());
                 // Remove eventual pasta duplicada criada pelo ZIP
                 fixNestedFolder(targetDir, baseName);
                 log("Arquivo ZIP extraído: " + fileName + " para " + targetDir);
-            }
+            });
         }
     }
 
@@ -413,6 +503,14 @@ public class OrganizadorService {
      * e suas ordens são copiadas para um diretório consolidado.
      */
     public void processarZipPai(String parentZipPath) throws IOException {
+        processarZipPai(parentZipPath, ContextoExecucao.de(props));
+    }
+
+    /**
+     * Variante de {@link #processarZipPai(String)} que usa o contexto
+     * informado.
+     */
+    public void processarZipPai(String parentZipPath, ContextoExecucao ctx) throws IOException {
         if (parentZipPath == null || parentZipPath.isBlank()) {
             throw new IllegalArgumentException("Caminho do ZIP pai não definido.");
         }
@@ -422,130 +520,260 @@ public class OrganizadorService {
         }
 
         // Pastas de destino
-        Path destBase = Path.of(props.getDestBasePath());
-        Path allOrdersBase = Path.of(props.getAllOrdersBasePath());
+        Path destBase = ctx.destBase();
+        Path allOrdersBase = ctx.allOrdersBase();
+        if (destBase == null || allOrdersBase == null) {
+            throw new IllegalArgumentException("Pastas de destino do ZIP pai não definidas.");
+        }
         Files.createDirectories(destBase);
         Files.createDirectories(allOrdersBase);
 
-        // Descompacta o ZIP pai em uma pasta temporária
-        Path tempDir = Files.createTempDirectory("zip-pai");
-        try (InputStream in = Files.newInputStream(zipPai)) {
-            unzip(in, tempDir);
-        }
-
-        // Para cada ZIP interno encontrado, extrai e copia as ordens
-        try (Stream<Path> innerStream = Files.walk(tempDir)) {
-            for (Path innerZip : innerStream
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.toString().toLowerCase().endsWith(".zip"))
-                    .collect(Collectors.toList())) {
-                String zipName = innerZip.getFileName().toString();
-                String rawBaseName = zipName.endsWith(".zip")
-                        ? zipName.substring(0, zipName.length() - 4)
-                        : zipName;
-                String inspectorPart = rawBaseName;
-                int dash = inspectorPart.indexOf('-');
-                if (dash >= 0 && dash + 1 < inspectorPart.length()) {
-                    inspectorPart = inspectorPart.substring(dash + 1);
-                }
-                String inspectorFolder = safeName(capitalize(inspectorPart));
-                String baseName = safeName(rawBaseName);
-                Path inspectorDir = destBase.resolve(inspectorFolder).resolve(baseName);
-                if (Files.exists(inspectorDir)) {
-                    if (props.isOverwriteExisting()) {
-                        if (!props.isDryRun()) deleteRecursively(inspectorDir);
-                    } else {
-                        log("IGNORADO: pasta do inspetor já existe: " + inspectorDir);
-                        continue;
+        // A planilha de saída é atualizada uma única vez, após todos os ZIPs internos
+        comMesclagemAdiada(ctx, adiado -> organizarZipPai(zipPai, destBase, allOrdersBase, adiado));
+    }
+
+    /** Extrai e organiza os ZIPs internos do ZIP pai. */
+    private void organizarZipPai(Path zipPai, Path destBase, Path allOrdersBase, ContextoExecucao ctx) throws IOException {
+        if (props.isZipPaiStreaming()) {
+            // Lê os ZIPs internos direto do stream do ZIP pai, sem gravá-los em disco.
+            // A leitura é sequencial; cada ZIP já extraído é organizado em paralelo
+            // enquanto o próximo é lido
+            List<Future<?>> organizacoes = new ArrayList<>();
+            try (ZipInputStream parent = new ZipInputStream(Files.newInputStream(zipPai))) {
+                ZipEntry entry;
+                while ((entry = parent.getNextEntry()) != null) {
+                    if (entry.isDirectory() || !entry.getName().toLowerCase().endsWith(".zip")) continue;
+                    String zipName = Path.of(entry.getName()).getFileName().toString();
+                    Path inspectorDir = extrairZipInterno(zipName, entry.getName(), destBase, ctx,
+                            dir -> unzip(new FilterInputStream(parent) {
+                                @Override
+                                public void close() {
+                                    // O stream do ZIP pai continua em uso
+                                }
+                            }, dir));
+                    if (inspectorDir != null) {
+                        organizacoes.add(executores.arquivos().submeter(() -> {
+                            organizarZipInterno(inspectorDir, allOrdersBase, ctx);
+                            return null;
+                        }));
                     }
                 }
-                if (props.isDryRun()) {
-                    log("[DRY-RUN] Descompactar: " + innerZip + " -> " + inspectorDir);
-                } else {
-                    Files.createDirectories(inspectorDir);
-                    try (InputStream in = Files.newInputStream(innerZip)) {
-                        unzip(in, inspectorDir);
-                    }
-                    fixNestedFolder(inspectorDir, baseName);
-                    // Extrai eventuais ZIPs de ordens já organizando as pastas
-                    extrairTodos(inspectorDir.toString());
+                for (Future<?> f : organizacoes) {
+                    ExecucaoParalela.aguardar(f);
                 }
-
-                // Organiza as ordens extraídas utilizando a lógica principal
-                // e copia o resultado para a pasta consolidada de todas as ordens
-                String originalSource = props.getSourceBasePath();
-                String originalDest   = props.getDestBasePath();
-                try {
-                    props.setSourceBasePath(inspectorDir.toString());
-                    props.setDestBasePath(allOrdersBase.toString());
-                    processar();
-                } finally {
-                    props.setSourceBasePath(originalSource);
-                    props.setDestBasePath(originalDest);
+            } finally {
+                // Em caso de falha interrompe as organizações ainda pendentes
+                for (Future<?> f : organizacoes) {
+                    f.cancel(true);
+                }
+            }
+        } else {
+            // Descompacta o ZIP pai em uma pasta temporária
+            Path tempDir = Files.createTempDirectory("zip-pai");
+            try {
+                ExtratorZip.extrair(zipPai, tempDir, executores.extracao());
+
+                // Para cada ZIP interno encontrado, extrai e copia as ordens
+                List<Path> innerZips;
+                try (Stream<Path> innerStream = Files.walk(tempDir)) {
+                    innerZips = innerStream
+                            .filter(Files::isRegularFile)
+                            .filter(p -> p.toString().toLowerCase().endsWith(".zip"))
+                            .collect(Collectors.toList());
                 }
+                // Cada ZIP interno vai para a pasta do seu inspetor; os destinos
+                // compartilhados são coordenados pelo contexto da execução
+                executores.arquivos().executar(innerZips, innerZip -> {
+                    Path inspectorDir = extrairZipInterno(innerZip.getFileName().toString(), innerZip.toString(),
+                            destBase, ctx, dir -> ExtratorZip.extrair(innerZip, dir, executores.extracao()));
+                    if (inspectorDir != null) {
+                        organizarZipInterno(inspectorDir, allOrdersBase, ctx);
+                    }
+                });
+            } finally {
+                deleteRecursively(tempDir);
             }
         }
 
         // Após organizar todas as ordens, renomeia as pastas de origem para
         // refletir o nome final presente em allOrdersBasePath.
-        renameLeafFolders(destBase, allOrdersBase);
+        renameLeafFolders(destBase, allOrdersBase, ctx);
     }
 
     /* ===== Helpers ===== */
 
+    /**
+     * Executa {@code acao} com as atualizações da planilha de saída
+     * acumuladas e as aplica ao final, mesmo que a ação falhe no meio (o
+     * que já foi organizado continua registrado na planilha). Se o contexto
+     * já acumula atualizações, quem as iniciou é quem as aplica.
+     */
+    private void comMesclagemAdiada(ContextoExecucao ctx, ExecucaoParalela.Acao<ContextoExecucao> acao) throws IOException {
+        if (ctx.mesclagens() != null) {
+            acao.executar(ctx);
+            return;
+        }
+        ContextoExecucao adiado = ctx.comMesclagens(new MesclagensAdiadas());
+        try {
+            acao.executar(adiado);
+        } catch (IOException | RuntimeException e) {
+            try {
+                aplicarMesclagens(adiado.mesclagens());
+            } catch (IOException | RuntimeException falha) {
+                e.addSuppressed(falha);
+            }
+            throw e;
+        }
+        aplicarMesclagens(adiado.mesclagens());
+    }
+
+    private void aplicarMesclagens(MesclagensAdiadas mesclagens) throws IOException {
+        for (MesclagensAdiadas.Mesclagem mesclagem : mesclagens.retirar()) {
+            mergeMissingRows(mesclagem);
+        }
+    }
+
+    /** Forma de extrair o conteúdo de um ZIP interno para a pasta do inspetor. */
+    @FunctionalInterface
+    private interface ExtracaoZip {
+        void extrair(Path destino) throws IOException;
+    }
+
+    /**
+     * Extrai um ZIP interno do ZIP pai para a pasta do inspetor.
+     *
+     * @param zipName nome do arquivo ZIP interno
+     * @param origem descrição da origem usada no log
+     * @param extracao grava o conteúdo do ZIP interno na pasta informada
+     * @return pasta do inspetor, ou {@code null} quando o ZIP foi ignorado
+     */
+    private Path extrairZipInterno(String zipName, String origem, Path destBase,
+                                   ContextoExecucao ctx, ExtracaoZip extracao) throws IOException {
+        String rawBaseName = NomesZipPai.semExtensao(zipName);
+        String inspectorFolder = safeName(NomesZipPai.inspetor(zipName));
+        String baseName = safeName(rawBaseName);
+        Path inspectorDir = destBase.resolve(inspectorFolder).resolve(baseName);
+        if (!ctx.nomes().reivindicar(inspectorDir)) {
+            log("IGNORADO: ZIP interno repetido no ZIP pai: " + origem);
+            return null;
+        }
+        if (Files.exists(inspectorDir)) {
+            if (ctx.overwriteExisting()) {
+                if (!ctx.dryRun()) deleteRecursively(inspectorDir);
+            } else {
+                log("IGNORADO: pasta do inspetor já existe: " + inspectorDir);
+                return null;
+            }
+        }
+        if (ctx.dryRun()) {
+            log("[DRY-RUN] Descompactar: " + origem + " -> " + inspectorDir);
+        } else {
+            Files.createDirectories(inspectorDir);
+            extracao.extrair(inspectorDir);
+            fixNestedFolder(inspectorDir, baseName);
+        }
+        return inspectorDir;
+    }
+
+    /**
+     * Organiza as ordens extraídas de um ZIP interno na pasta consolidada
+     * de todas as ordens.
+     */
+    private void organizarZipInterno(Path inspectorDir, Path allOrdersBase, ContextoExecucao ctx) throws IOException {
+        if (!ctx.dryRun()) {
+            // Extrai eventuais ZIPs de ordens já organizando as pastas
+            extrairTodos(inspectorDir.toString());
+        }
+
+        // Organiza as ordens extraídas utilizando a lógica principal
+        // e copia o resultado para a pasta consolidada de todas as ordens.
+        // As pastas do inspetor também são resultado final, então MOVE
+        // vira HARDLINK aqui para não esvaziá-las
+        ContextoExecucao interno = ctx.comOrigem(inspectorDir).comDestino(allOrdersBase)
+                .comInspetorZipPai(inspectorDir.getParent().getFileName().toString());
+        if (ctx.placementMode() == PlacementMode.MOVE) {
+            interno = interno.comPlacementMode(PlacementMode.HARDLINK);
+        }
+        processar(interno);
+    }
+
     /**
      * Renomeia os diretórios de último nível em {@code sourceRoot} para que
      * correspondam aos nomes gerados em {@code allOrdersRoot}. O mapeamento é
      * feito com base no número da ordem, extraído do nome final (antes do
      * primeiro espaço).
      */
-    private void renameLeafFolders(Path sourceRoot, Path allOrdersRoot) throws IOException {
+    private void renameLeafFolders(Path sourceRoot, Path allOrdersRoot, ContextoExecucao ctx) throws IOException {
         if (!Files.isDirectory(sourceRoot) || !Files.isDirectory(allOrdersRoot)) return;
 
         Map<String, String> nameMap = new HashMap<>();
-        try (Stream<Path> stream = Files.walk(allOrdersRoot)) {
-            stream.filter(Files::isDirectory)
-                  .filter(this::isLeafSafe)
-                  .forEach(p -> {
-                      String finalName = p.getFileName().toString();
-                      String[] parts = finalName.split(" ", 2);
-                      if (parts.length > 0) {
-                          nameMap.put(parts[0], finalName);
-                      }
-                  });
+        for (Path p : listarFolhas(allOrdersRoot)) {
+            String finalName = p.getFileName().toString();
+            String[] parts = finalName.split(" ", 2);
+            if (parts.length > 0) {
+                nameMap.put(parts[0], finalName);
+            }
         }
 
         if (nameMap.isEmpty()) return;
 
-        try (Stream<Path> stream = Files.walk(sourceRoot)) {
-            for (Path dir : stream.filter(Files::isDirectory).collect(Collectors.toList())) {
-                if (!isLeafSafe(dir)) continue;
-                String nome = dir.getFileName().toString();
-                String novoNome = nameMap.get(nome);
-                if (novoNome != null && !novoNome.equals(nome)) {
-                    Path target = uniquePath(dir.getParent().resolve(safeName(novoNome)));
-                    if (props.isDryRun()) {
-                        log("[DRY-RUN] Renomear: " + dir + " -> " + target);
-                    } else {
-                        Files.move(dir, target);
-                    }
+        for (Path dir : listarFolhas(sourceRoot)) {
+            String nome = dir.getFileName().toString();
+            String novoNome = nameMap.get(nome);
+            if (novoNome != null && !novoNome.equals(nome)) {
+                Path target = ctx.nomes().alocar(dir.getParent().resolve(safeName(novoNome)), ctx.dryRun());
+                if (ctx.dryRun()) {
+                    log("[DRY-RUN] Renomear: " + dir + " -> " + target);
+                } else {
+                    Files.move(dir, target, StandardCopyOption.REPLACE_EXISTING);
                 }
             }
         }
     }
 
-    /** Verifica se o diretório não possui subpastas, ignorando erros. */
-    private boolean isLeafSafe(Path dir) {
-        try (Stream<Path> stream = Files.list(dir)) {
-            return stream.noneMatch(Files::isDirectory);
-        } catch (IOException e) {
-            return false;
-        }
+    /**
+     * Lista os diretórios sem subpastas em {@code raiz} (incluindo a própria
+     * raiz) com uma única passagem pela árvore, usando os atributos já
+     * lidos pela varredura em vez de listar cada pasta novamente.
+     * Diretórios que não puderam ser lidos são ignorados.
+     */
+    private static List<Path> listarFolhas(Path raiz) throws IOException {
+        List<Path> folhas = new ArrayList<>();
+        // Para cada diretório aberto na descida: se já encontrou uma subpasta
+        Deque<boolean[]> abertos = new ArrayDeque<>();
+        Files.walkFileTree(raiz, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                marcarPai();
+                abertos.push(new boolean[1]);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                // Pasta ilegível ainda conta como subpasta do diretório pai
+                if (Files.isDirectory(file)) marcarPai();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                boolean temSubpasta = abertos.pop()[0];
+                if (!temSubpasta && exc == null) folhas.add(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            private void marcarPai() {
+                if (!abertos.isEmpty()) abertos.peek()[0] = true;
+            }
+        });
+        return folhas;
     }
 
     /**
      * Descompacta um arquivo ZIP a partir de um {@link InputStream}
      * para o diretório informado, criando as pastas conforme necessário.
+     * Usado para uploads; arquivos já em disco passam por {@link ExtratorZip}.
      */
     private static void unzip(InputStream in, Path target) throws IOException {
         try (ZipInputStream zin = new ZipInputStream(in)) {
@@ -583,17 +811,14 @@ public class OrganizadorService {
      * Lê datas do Excel, suportando tanto células de data nativas
      * quanto texto em diferentes formatos (MM/dd/yyyy, ISO etc.).
      */
-    private static LocalDate readLocalDate(Cell cell, DataFormatter fmt, ZoneId zone) {
-        if (cell == null) return null;
-
+    private static LocalDate readLocalDate(LeitorPlanilhaStream.Linha row, int col) {
         // Caso seja uma célula de data do Excel
-        if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-            return cell.getDateCellValue().toInstant().atZone(zone).toLocalDate();
-        }
+        LocalDate nativa = row.data(col);
+        if (nativa != null) return nativa;
 
         // Texto (ex.: "06/08/2025", "6/8/25", "06/08/2025 00:00", "2025-06-08")
-        String raw = fmt.formatCellValue(cell);
-        if (raw == null || raw.isBlank()) return null;
+        String raw = row.texto(col);
+        if (raw.isBlank()) return null;
         raw = raw.trim();
 
         // Se vier com hora, corta a parte da hora
@@ -620,123 +845,202 @@ public class OrganizadorService {
      * Atualiza a planilha de destino adicionando linhas ausentes
      * e organizando as colunas conforme o mapeamento desejado.
      */
-    private void mergeMissingRows(Path source, Path dest, int sheetIndex, boolean dryRun) throws IOException {
-        try (Workbook srcWb = new XSSFWorkbook(Files.newInputStream(source));
-             Workbook dstWb = Files.exists(dest)
-                     ? new XSSFWorkbook(Files.newInputStream(dest))
-                     : new XSSFWorkbook()) {
-
-            DataFormatter fmt = new DataFormatter();
+    private void mergeMissingRows(MesclagensAdiadas.Mesclagem m) throws IOException {
+        // Execuções paralelas podem apontar para a mesma planilha de saída
+        Object trava = travasPlanilha.computeIfAbsent(m.dest().toAbsolutePath().normalize(), k -> new Object());
+        synchronized (trava) {
+            mergeMissingRowsSerializado(m.indice(), m.source(), m.dest(), m.sheetIndex(), m.dryRun());
+        }
+    }
 
-            Sheet srcSheet = srcWb.getSheetAt(sheetIndex);
-            if (srcSheet == null) {
-                throw new IllegalArgumentException("Aba " + sheetIndex + " não encontrada no Excel.");
-            }
-            Row srcHeader = srcSheet.getRow(srcSheet.getFirstRowNum());
-            if (srcHeader == null) {
-                throw new IllegalArgumentException("Cabeçalho não encontrado na planilha.");
-            }
-            Map<String, Integer> srcMap = mapHeader(srcHeader, fmt);
-
-            int idxDate      = idx(srcMap, "DUEDATE");
-            int idxInspector = idx(srcMap, "INSPECTOR");
-            int idxAddress   = idx(srcMap, "ADDRESS1");
-            int idxCity      = idx(srcMap, "CITY");
-            int idxZip       = idx(srcMap, "ZIP");
-            int idxOtype     = idx(srcMap, "OTYPE");
-            int idxWorder    = idx(srcMap, "WORDER");
-
-            Sheet dstSheet;
-            if (dstWb.getNumberOfSheets() <= sheetIndex) {
-                while (dstWb.getNumberOfSheets() <= sheetIndex) {
-                    dstWb.createSheet();
-                }
-            }
-            dstSheet = dstWb.getSheetAt(sheetIndex);
-            dstWb.setSheetName(sheetIndex, srcSheet.getSheetName());
-
-            Row dstHeader = dstSheet.getRow(dstSheet.getFirstRowNum());
-            if (dstHeader == null) {
-                dstHeader = dstSheet.createRow(0);
-                String[] headers = {"Data", "Inspector", "Address", "City", "zipcode", "OTYPE", "Worder"};
-                for (int i = 0; i < headers.length; i++) {
-                    dstHeader.createCell(i).setCellValue(headers[i]);
-                }
-            }
+    private void mergeMissingRowsSerializado(IndiceInspetores indice, Path source, Path dest, int sheetIndex, boolean dryRun) throws IOException {
+        // Da planilha de saída só os WORDER já presentes ficam em memória; as
+        // linhas novas são acrescentadas sem reescrever o conteúdo existente
+        AbaSaida saida = lerPlanilhaSaida(dest, sheetIndex);
+        List<String[]> novas = new ArrayList<>();
+        String[] nomeAba = new String[1];
+        if (saida.proximaLinha == 0) {
+            novas.add(new String[]{"Data", "Inspector", "Address", "City", "zipcode", "OTYPE", "Worder"});
+        }
 
-            Map<String, Integer> dstMap = mapHeader(dstHeader, fmt);
-            int dstIdxWorder = idx(dstMap, "Worder");
-
-            Set<String> existentes = new HashSet<>();
-            int tFirst = dstSheet.getFirstRowNum() + 1;
-            int tLast = dstSheet.getLastRowNum();
-            for (int r = tFirst; r <= tLast; r++) {
-                Row row = dstSheet.getRow(r);
-                if (row == null) continue;
-                String w = fmt.formatCellValue(row.getCell(dstIdxWorder)).trim();
-                if (!w.isBlank()) existentes.add(w);
+        // A planilha de origem vem do cache/streaming
+        cachePlanilha.ler(source, sheetIndex, new LeitorPlanilhaStream.Visitante() {
+            private int idxDate;
+            private int idxInspector;
+            private int idxAddress;
+            private int idxCity;
+            private int idxZip;
+            private int idxOtype;
+            private int idxWorder;
+
+            @Override
+            public void cabecalho(String nome, String[] colunas, int numeroLinha) {
+                Map<String, Integer> srcMap = mapHeader(colunas);
+                idxDate      = idx(srcMap, "DUEDATE");
+                idxInspector = idx(srcMap, "INSPECTOR");
+                idxAddress   = idx(srcMap, "ADDRESS1");
+                idxCity      = idx(srcMap, "CITY");
+                idxZip       = idx(srcMap, "ZIP");
+                idxOtype     = idx(srcMap, "OTYPE");
+                idxWorder    = idx(srcMap, "WORDER");
+                nomeAba[0] = nome;
             }
 
-            Map<String, String> inspectorMap = mapInspectorsFromFolders();
-
-            int destRowNum = tLast + 1;
-            int sFirst = srcSheet.getFirstRowNum() + 1;
-            int sLast  = srcSheet.getLastRowNum();
-            for (int r = sFirst; r <= sLast; r++) {
-                Row sRow = srcSheet.getRow(r);
-                if (sRow == null) continue;
-                String worder = fmt.formatCellValue(sRow.getCell(idxWorder)).trim();
-                if (worder.isBlank() || existentes.contains(worder)) {
-                    continue;
+            @Override
+            public void linha(LeitorPlanilhaStream.Linha sRow) {
+                String worder = sRow.texto(idxWorder).trim();
+                if (worder.isBlank() || !saida.existentes().add(worder)) {
+                    return;
                 }
                 if (dryRun) {
                     log("[DRY-RUN] Adicionar Worder=" + worder + " ao Excel: " + dest);
                 } else {
-                    Row dRow = dstSheet.createRow(destRowNum++);
-                    dRow.createCell(0).setCellValue(fmt.formatCellValue(sRow.getCell(idxDate)));
-                    String inspector = inspectorMap.get(worder);
+                    String inspector = indice.buscar(worder);
                     if (inspector == null || inspector.isBlank()) {
-                        inspector = fmt.formatCellValue(sRow.getCell(idxInspector));
+                        inspector = sRow.texto(idxInspector);
                     }
-                    dRow.createCell(1).setCellValue(inspector);
-                    dRow.createCell(2).setCellValue(fmt.formatCellValue(sRow.getCell(idxAddress)));
-                    dRow.createCell(3).setCellValue(fmt.formatCellValue(sRow.getCell(idxCity)));
-                    dRow.createCell(4).setCellValue(fmt.formatCellValue(sRow.getCell(idxZip)));
-                    dRow.createCell(5).setCellValue(fmt.formatCellValue(sRow.getCell(idxOtype)));
-                    dRow.createCell(6).setCellValue(worder);
+                    novas.add(new String[]{sRow.texto(idxDate), inspector, sRow.texto(idxAddress),
+                            sRow.texto(idxCity), sRow.texto(idxZip), sRow.texto(idxOtype), worder});
                 }
-                existentes.add(worder);
             }
+        });
 
-            if (dryRun) {
-                log("[DRY-RUN] Atualizar planilha: " + dest);
-            } else {
-                Path parent = dest.getParent();
-                if (parent != null) Files.createDirectories(parent);
-                try (OutputStream out = Files.newOutputStream(dest)) {
-                    dstWb.write(out);
-                }
-                log("PLANILHA ATUALIZADA: " + dest);
+        if (dryRun) {
+            log("[DRY-RUN] Atualizar planilha: " + dest);
+        } else if (!novas.isEmpty()) {
+            if (saida.abas <= sheetIndex) {
+                criarAbasSaida(dest, sheetIndex, nomeAba[0]);
             }
+            gravarPlanilhaSaida(dest, temp ->
+                    AnexadorPlanilhaXlsx.anexar(dest, sheetIndex, saida.proximaLinha, novas, temp));
+            log("PLANILHA ATUALIZADA: " + dest);
         }
     }
 
-    private Map<String, String> mapInspectorsFromFolders() {
-        Map<String, String> map = new HashMap<>();
+    /** WORDER já presentes na aba de destino da planilha de saída. */
+    private static final class AbaSaida {
+        private final Set<String> existentes = new HashSet<>();
+        private int abas;
+        private int proximaLinha;
+        private int idxWorder = -1;
 
-        Path destBase = Path.of(props.getDestBasePath());
-        loadInspectors(destBase, map);
+        Set<String> existentes() {
+            return existentes;
+        }
+    }
+
+    /**
+     * Lê em streaming a aba {@code sheetIndex} da planilha de saída,
+     * coletando os WORDER existentes e a próxima linha livre. Arquivo ou aba
+     * ausentes contam como aba vazia.
+     */
+    private AbaSaida lerPlanilhaSaida(Path dest, int sheetIndex) throws IOException {
+        AbaSaida aba = new AbaSaida();
+        aba.abas = Files.exists(dest) ? LeitorPlanilhaStream.abas(dest).size() : 0;
+        if (sheetIndex < aba.abas) {
+            LeitorPlanilhaStream.lerSeHouverCabecalho(dest, sheetIndex, new LeitorPlanilhaStream.Visitante() {
+                @Override
+                public void cabecalho(String nomeAba, String[] colunas, int numeroLinha) {
+                    aba.idxWorder = mapHeader(colunas).getOrDefault(normalize("Worder"), -1);
+                    // O cabeçalho pode não estar na linha 1; as novas linhas vêm depois dele
+                    aba.proximaLinha = numeroLinha;
+                }
 
-        Path source = Path.of(props.getSourceBasePath());
-        if (source.getNameCount() > 1) {
-            Path root = source.getParent().getParent();
-            loadInspectors(root, map);
+                @Override
+                public void linha(LeitorPlanilhaStream.Linha linha) {
+                    if (aba.idxWorder >= 0) {
+                        String w = linha.texto(aba.idxWorder).trim();
+                        if (!w.isBlank()) aba.existentes.add(w);
+                    }
+                    aba.proximaLinha = Math.max(aba.proximaLinha, linha.numero());
+                }
+            });
         }
+        if (aba.proximaLinha > 0 && aba.idxWorder < 0) {
+            throw new IllegalArgumentException("Coluna 'Worder' não encontrada no cabeçalho (normalizado).");
+        }
+        return aba;
+    }
 
-        return map;
+    /**
+     * Cria a planilha de saída ou as abas que faltam até {@code sheetIndex}.
+     * Só acontece na primeira gravação em uma aba nova, então o workbook
+     * inteiro é aberto aqui.
+     */
+    private static void criarAbasSaida(Path dest, int sheetIndex, String nomeAba) throws IOException {
+        try (XSSFWorkbook wb = Files.exists(dest)
+                ? new XSSFWorkbook(Files.newInputStream(dest))
+                : new XSSFWorkbook()) {
+            while (wb.getNumberOfSheets() <= sheetIndex) {
+                boolean ultima = wb.getNumberOfSheets() == sheetIndex;
+                if (ultima && nomeAba != null && wb.getSheet(nomeAba) == null) {
+                    wb.createSheet(nomeAba);
+                } else {
+                    wb.createSheet();
+                }
+            }
+            gravarPlanilhaSaida(dest, temp -> {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    wb.write(out);
+                }
+            });
+        }
+    }
+
+    /** Escreve o conteúdo de um arquivo temporário. */
+    @FunctionalInterface
+    private interface Gravacao {
+        void gravar(Path temp) throws IOException;
     }
 
-    private void loadInspectors(Path base, Map<String, String> map) {
+    /**
+     * Grava a planilha em um arquivo temporário na mesma pasta e o move
+     * sobre o destino, para que uma falha no meio não corrompa o arquivo.
+     */
+    private static void gravarPlanilhaSaida(Path dest, Gravacao gravacao) throws IOException {
+        Path parent = dest.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, ".planilha-saida", ".xlsx");
+        try {
+            gravacao.gravar(temp);
+            try {
+                Files.move(temp, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, dest, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Devolve o índice WORDER → inspetor do contexto, carregando-o do disco
+     * na primeira vez e relendo-o quando o arquivo foi alterado por outro
+     * processo. Se o arquivo ainda não existe, o índice é populado uma única
+     * vez a partir das pastas de inspetores já presentes em
+     * {@code destBase} e ao redor de {@code sourceBase}.
+     */
+    private synchronized IndiceInspetores indiceInspetores(ContextoExecucao ctx) throws IOException {
+        Path arquivo = ctx.indiceInspetores().toAbsolutePath().normalize();
+        IndiceInspetores indice = indicesInspetores.get(arquivo);
+        if (indice != null) {
+            indice.recarregarSeAlterado();
+        } else {
+            indice = IndiceInspetores.carregar(arquivo);
+            if (indice.isNovo()) {
+                loadInspectors(ctx.destBase(), indice);
+                Path source = ctx.sourceBase();
+                if (source != null && source.getNameCount() > 1) {
+                    loadInspectors(source.getParent().getParent(), indice);
+                }
+                log("INDICE INSPETORES: " + indice.tamanho() + " ordens encontradas nas pastas");
+            }
+            indicesInspetores.put(arquivo, indice);
+        }
+        return indice;
+    }
+
+    private void loadInspectors(Path base, IndiceInspetores indice) {
         if (base == null || !Files.isDirectory(base)) return;
         try (Stream<Path> stream = Files.walk(base)) {
             stream.filter(Files::isDirectory).forEach(p -> {
@@ -751,7 +1055,7 @@ public class OrganizadorService {
                     }
                     if (rel.getNameCount() >= 3) {
                         String inspector = rel.getName(0).toString();
-                        map.putIfAbsent(numero, inspector);
+                        indice.registrarSeAusente(numero, inspector, p);
                     }
                 }
             });
@@ -760,10 +1064,90 @@ public class OrganizadorService {
         }
     }
 
+    /** Colocação de uma ordem planejada a partir de uma linha da planilha. */
+    private record CopiaPlanejada(String numero, Path src, Path tipoDir, Path dest, String urg, PlacementMode modo) {
+    }
+
+    /**
+     * Executa as cópias planejadas no pool de cópias compartilhado, limitado a
+     * {@link OrganizadorProperties#getCopyParallelism()} threads. Os destinos
+     * já foram definidos no planejamento, então a ordem de execução não
+     * altera o resultado.
+     */
+    private void executarCopias(List<CopiaPlanejada> copias, ProgressoExecucao progresso) throws IOException {
+        executores.copias().executar(copias, copia -> copiar(copia, progresso));
+    }
+
+    private static void copiar(CopiaPlanejada copia, ProgressoExecucao progresso) throws IOException {
+        Files.createDirectories(copia.tipoDir());
+        placeDirectory(copia.src(), copia.dest(), copia.modo(), progresso);
+        log(rotulo(copia.modo()) + ": " + copia.src().getFileName() + " -> " + copia.tipoDir().getFileName() + "/" + copia.dest().getFileName() + " (urg=" + copia.urg() + ")");
+    }
+
+    /**
+     * Coloca a pasta de origem no destino conforme o modo configurado.
+     * HARDLINK cria um link por arquivo e copia apenas quando o link não
+     * é possível (volumes diferentes, sistema sem suporte); MOVE renomeia
+     * a pasta e recorre a cópia + remoção quando ela está em outro volume.
+     */
+    private static void placeDirectory(Path source, Path target, PlacementMode modo,
+                                       ProgressoExecucao progresso) throws IOException {
+        switch (modo) {
+            case HARDLINK -> linkDirectory(source, target, progresso);
+            case MOVE -> {
+                try {
+                    // O destino é a pasta vazia reservada pelo alocador
+                    Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+                } catch (DirectoryNotEmptyException | AtomicMoveNotSupportedException e) {
+                    // Outro volume: não é possível apenas renomear
+                    copyDirectory(source, target, progresso);
+                    deleteRecursively(source);
+                }
+            }
+            default -> copyDirectory(source, target, progresso);
+        }
+    }
+
+    /**
+     * Recria a estrutura de pastas no destino com hard links para os
+     * arquivos da origem, copiando quando o link não é suportado.
+     */
+    private static void linkDirectory(Path source, Path target, ProgressoExecucao progresso) throws IOException {
+        try (var stream = Files.walk(source)) {
+            stream.forEach(path -> {
+                try {
+                    Path destino = target.resolve(source.relativize(path));
+                    if (Files.isDirectory(path)) {
+                        Files.createDirectories(destino);
+                        return;
+                    }
+                    Files.createDirectories(destino.getParent());
+                    try {
+                        Files.createLink(destino, path);
+                    } catch (UnsupportedOperationException | FileSystemException e) {
+                        Files.copy(path, destino, StandardCopyOption.REPLACE_EXISTING);
+                        progresso.bytesCopiados(Files.size(destino));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException("Erro ao vincular: " + path + " -> " + e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    /** Rótulo usado no log para cada modo de colocação. */
+    private static String rotulo(PlacementMode modo) {
+        return switch (modo) {
+            case HARDLINK -> "VINCULADO";
+            case MOVE -> "MOVIDO";
+            default -> "COPIADO";
+        };
+    }
+
     /**
      * Copia recursivamente uma pasta para outra localização.
      */
-    private static void copyDirectory(Path source, Path target) throws IOException {
+    private static void copyDirectory(Path source, Path target, ProgressoExecucao progresso) throws IOException {
         try (var stream = Files.walk(source)) {
             stream.forEach(path -> {
                 try {
@@ -774,6 +1158,7 @@ public class OrganizadorService {
                     } else {
                         Files.createDirectories(destino.getParent());
                         Files.copy(path, destino, StandardCopyOption.REPLACE_EXISTING);
+                        progresso.bytesCopiados(Files.size(destino));
                     }
                 } catch (IOException e) {
                     throw new RuntimeException("Erro ao copiar: " + path + " -> " + e.getMessage(), e);
@@ -815,12 +1200,13 @@ public class OrganizadorService {
     }
 
     /**
-     * Cria um mapa de nome de coluna para índice baseado no cabeçalho do Excel.
+     * Cria um mapa de nome de coluna para índice baseado no cabeçalho do
+     * Excel lido em streaming.
      */
-    private static Map<String, Integer> mapHeader(Row header, DataFormatter fmt) {
+    private static Map<String, Integer> mapHeader(String[] header) {
         Map<String, Integer> map = new HashMap<>();
-        for (int c = header.getFirstCellNum(); c < header.getLastCellNum(); c++) {
-            String raw = fmt.formatCellValue(header.getCell(c));
+        for (int c = 0; c < header.length; c++) {
+            String raw = header[c];
             if (raw != null && !raw.isBlank()) {
                 map.put(normalize(raw), c);
             }
@@ -848,14 +1234,6 @@ public class OrganizadorService {
         return n.toLowerCase(Locale.ROOT).trim();
     }
 
-    /**
-     * Coloca a primeira letra em maiúscula e o restante em minúscula.
-     */
-    private static String capitalize(String s) {
-        if (s == null || s.isBlank()) return s;
-        return s.substring(0, 1).toUpperCase(Locale.ROOT) + s.substring(1).toLowerCase(Locale.ROOT);
-    }
-
     /**
      * Ajusta um nome para ser seguro para uso em sistemas de arquivos.
      */
@@ -870,22 +1248,6 @@ public class OrganizadorService {
         return n;
     }
 
-    /**
-     * Gera um caminho único caso o destino já exista, adicionando
-     * um sufixo numérico incremental.
-     */
-    private static Path uniquePath(Path dest) {
-        if (!Files.exists(dest)) return dest;
-        String base = dest.getFileName().toString();
-        Path parent = dest.getParent();
-        int i = 1;
-        while (true) {
-            Path candidate = parent.resolve(base + "-" + i);
-            if (!Files.exists(candidate)) return candidate;
-            i++;
-        }
-    }
-
     /** Escreve uma mensagem simples no console. */
     private static void log(String s) {
         System.out.println(s);
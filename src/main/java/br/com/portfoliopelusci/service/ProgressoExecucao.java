@@ -0,0 +1,31 @@
+package br.com.portfoliopelusci.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de andamento de uma execução do organizador. Atualizados
+ * pelas threads de cópia e lidos a qualquer momento pela consulta de jobs.
+ */
+public class ProgressoExecucao {
+
+    private final AtomicLong linhasProcessadas = new AtomicLong();
+    private final AtomicLong bytesCopiados = new AtomicLong();
+
+    /** Registra uma linha da planilha processada. */
+    public void linhaProcessada() {
+        linhasProcessadas.incrementAndGet();
+    }
+
+    /** Soma bytes efetivamente copiados para o destino. */
+    public void bytesCopiados(long bytes) {
+        bytesCopiados.addAndGet(bytes);
+    }
+
+    public long getLinhasProcessadas() {
+        return linhasProcessadas.get();
+    }
+
+    public long getBytesCopiados() {
+        return bytesCopiados.get();
+    }
+}
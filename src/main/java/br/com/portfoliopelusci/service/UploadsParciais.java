@@ -0,0 +1,325 @@
+package br.com.portfoliopelusci.service;
+
+import br.com.portfoliopelusci.config.OrganizadorProperties;
+import br.com.portfoliopelusci.dto.UploadParcialResponse;
+import br.com.portfoliopelusci.exceptions.ResourceNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Uploads de ZIPs grandes enviados em partes, que podem ser retomados
+ * depois de uma falha de conexão. Cada upload tem uma pasta própria com os
+ * metadados e o arquivo final, que já é criado com o nome do ZIP: cada
+ * parte é gravada direto na sua posição, então ao concluir não há
+ * montagem nem cópia, apenas o arquivo pronto para ser processado.
+ * <p>
+ * As partes precisam chegar em ordem: uma parte pode começar em qualquer
+ * offset até o total já recebido (reenviar um trecho apenas o sobrescreve),
+ * mas nunca deixar um buraco. Após uma falha o cliente consulta quantos
+ * bytes chegaram e continua daquele ponto.
+ * <p>
+ * Uploads que ficam sem receber partes por mais de
+ * {@code organizador.chunked-upload-ttl-hours} são removidos na próxima vez
+ * que um upload é iniciado.
+ */
+@Service
+public class UploadsParciais {
+
+    private static final String METADADOS = "upload.properties";
+
+    private final Path raiz;
+    private final int ttlHoras;
+    /** Travas apenas de uploads existentes e ainda não reservados. */
+    private final Map<String, ReentrantLock> travas = new ConcurrentHashMap<>();
+    private final Set<String> emProcessamento = ConcurrentHashMap.newKeySet();
+
+    /** Parte enviada a partir de um offset além dos bytes já recebidos. */
+    public static class OffsetInvalidoException extends IllegalArgumentException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient UploadParcialResponse status;
+
+        public OffsetInvalidoException(UploadParcialResponse status, long offset) {
+            super("Offset " + offset + " inválido: o upload " + status.id()
+                    + " recebeu " + status.recebidos() + " bytes.");
+            this.status = status;
+        }
+
+        public UploadParcialResponse getStatus() {
+            return status;
+        }
+    }
+
+    public UploadsParciais(OrganizadorProperties props) {
+        String configurado = props.getChunkedUploadPath();
+        this.raiz = configurado != null && !configurado.isBlank()
+                ? Path.of(configurado)
+                : Path.of(System.getProperty("java.io.tmpdir"), "uploads-parciais");
+        this.ttlHoras = props.getChunkedUploadTtlHours();
+    }
+
+    /** Operação executada com a trava do upload. */
+    @FunctionalInterface
+    private interface AcaoUpload<T> {
+        T executar(Upload upload) throws IOException;
+    }
+
+    /**
+     * Cria um upload vazio para um arquivo de {@code tamanho} bytes.
+     *
+     * @param nome nome do arquivo ZIP; apenas o nome do arquivo é usado
+     */
+    public UploadParcialResponse iniciar(String nome, long tamanho) throws IOException {
+        if (nome == null || nome.isBlank()) {
+            throw new IllegalArgumentException("Nome do arquivo obrigatório.");
+        }
+        if (tamanho <= 0) {
+            throw new IllegalArgumentException("Tamanho do arquivo deve ser maior que zero.");
+        }
+        String nomeArquivo = Path.of(nome).getFileName().toString();
+        if (nomeArquivo.equals(METADADOS)) {
+            throw new IllegalArgumentException("Nome de arquivo inválido: " + nome);
+        }
+        removerAbandonados();
+
+        String id = UUID.randomUUID().toString();
+        Path pasta = raiz.resolve(id);
+        Files.createDirectories(pasta);
+
+        Properties meta = new Properties();
+        meta.setProperty("nome", nomeArquivo);
+        meta.setProperty("tamanho", Long.toString(tamanho));
+        try (OutputStream out = Files.newOutputStream(pasta.resolve(METADADOS))) {
+            meta.store(out, null);
+        }
+        Files.createFile(pasta.resolve(nomeArquivo));
+        return new UploadParcialResponse(id, nomeArquivo, tamanho, 0, false);
+    }
+
+    /**
+     * Grava os bytes de {@code in} a partir de {@code offset}. O conteúdo é
+     * transferido do stream direto para o arquivo, na posição da parte.
+     *
+     * @throws OffsetInvalidoException se o offset deixar um buraco no arquivo
+     */
+    public UploadParcialResponse gravarParte(String id, long offset, InputStream in) throws IOException {
+        return comTrava(id, upload -> {
+            if (emProcessamento.contains(id)) {
+                throw new IllegalStateException("Upload " + id + " já está sendo processado.");
+            }
+            long recebidos = Files.size(upload.arquivo());
+            if (offset < 0 || offset > recebidos) {
+                throw new OffsetInvalidoException(upload.status(recebidos), offset);
+            }
+
+            long restante = upload.tamanho() - offset;
+            try (FileChannel canal = FileChannel.open(upload.arquivo(), StandardOpenOption.WRITE)) {
+                canal.transferFrom(Channels.newChannel(in), offset, restante);
+            }
+            if (in.read() != -1) {
+                throw new IllegalArgumentException("A parte ultrapassa o tamanho declarado do upload "
+                        + id + " (" + upload.tamanho() + " bytes).");
+            }
+            return upload.status(Files.size(upload.arquivo()));
+        });
+    }
+
+    /** Situação atual do upload. */
+    public UploadParcialResponse consultar(String id) throws IOException {
+        Upload upload = carregar(id);
+        return upload.status(Files.size(upload.arquivo()));
+    }
+
+    /**
+     * Reserva o upload completo para processamento e devolve o arquivo
+     * montado. Depois do processamento o chamador deve chamar
+     * {@link #descartar(String)} em caso de sucesso ou
+     * {@link #liberar(String)} para permitir uma nova tentativa.
+     */
+    public Path concluir(String id) throws IOException {
+        return comTrava(id, upload -> {
+            long recebidos = Files.size(upload.arquivo());
+            if (recebidos != upload.tamanho()) {
+                throw new IllegalArgumentException("Upload " + id + " incompleto: recebidos "
+                        + recebidos + " de " + upload.tamanho() + " bytes.");
+            }
+            if (!emProcessamento.add(id)) {
+                throw new IllegalStateException("Upload " + id + " já está sendo processado.");
+            }
+            // Reservado, o upload não aceita mais partes; a trava volta a ser criada se preciso
+            travas.remove(id);
+            return upload.arquivo();
+        });
+    }
+
+    /** Libera um upload reservado em {@link #concluir(String)} sem apagá-lo. */
+    public void liberar(String id) {
+        try {
+            comTrava(id, upload -> {
+                emProcessamento.remove(id);
+                travas.remove(id);
+                return null;
+            });
+        } catch (IOException | ResourceNotFoundException e) {
+            // O upload já não existe; resta apenas a reserva
+            emProcessamento.remove(id);
+        }
+    }
+
+    /** Remove o upload e seus arquivos. */
+    public void descartar(String id) throws IOException {
+        Path pasta = pasta(id);
+        try {
+            comTrava(id, upload -> {
+                apagar(pasta);
+                emProcessamento.remove(id);
+                travas.remove(id);
+                return null;
+            });
+        } catch (ResourceNotFoundException e) {
+            // Sem metadados: já removido ou sobra de um início interrompido
+            apagar(pasta);
+        }
+    }
+
+    /**
+     * Executa {@code acao} com a trava do upload. A existência do upload é
+     * verificada antes de criar a trava, para que ids inexistentes não
+     * deixem entradas no mapa, e a trava é descartada ao reservar, liberar
+     * ou remover o upload.
+     */
+    private <T> T comTrava(String id, AcaoUpload<T> acao) throws IOException {
+        Path metadados = pasta(id).resolve(METADADOS);
+        while (true) {
+            if (!Files.exists(metadados)) {
+                throw new ResourceNotFoundException("Upload não encontrado: " + id);
+            }
+            ReentrantLock trava = travas.computeIfAbsent(id, k -> new ReentrantLock());
+            trava.lock();
+            try {
+                // A trava pode ter sido removida enquanto esta thread esperava
+                if (travas.get(id) == trava) {
+                    return acao.executar(carregar(id));
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+    }
+
+    /**
+     * Remove os uploads sem partes novas há mais de {@link #ttlHoras} horas.
+     * Uploads reservados para processamento são mantidos. A data e a reserva
+     * são conferidas sem trava, e a trava só é tentada nos uploads parados:
+     * um upload recebendo uma parte fica com a trava durante toda a
+     * transferência, e a varredura o pula em vez de esperar por ele.
+     */
+    private void removerAbandonados() throws IOException {
+        if (ttlHoras <= 0 || !Files.isDirectory(raiz)) {
+            return;
+        }
+        Instant limite = Instant.now().minus(Duration.ofHours(ttlHoras));
+        List<String> ids;
+        try (Stream<Path> pastas = Files.list(raiz)) {
+            ids = pastas.map(p -> p.getFileName().toString()).toList();
+        }
+        for (String id : ids) {
+            try {
+                if (emProcessamento.contains(id) || !ultimaAlteracao(carregar(id)).isBefore(limite)) {
+                    continue;
+                }
+                ReentrantLock trava = travas.computeIfAbsent(id, k -> new ReentrantLock());
+                if (!trava.tryLock()) {
+                    // Em uso por outra requisição
+                    continue;
+                }
+                try {
+                    if (travas.get(id) == trava && !emProcessamento.contains(id)) {
+                        Upload upload = carregar(id);
+                        if (ultimaAlteracao(upload).isBefore(limite)) {
+                            apagar(upload.arquivo().getParent());
+                        }
+                    }
+                    // A varredura não deixa travas para trás
+                    travas.remove(id, trava);
+                } finally {
+                    trava.unlock();
+                }
+            } catch (ResourceNotFoundException | NoSuchFileException ignorada) {
+                // Pasta que não é de upload, ainda sendo criada ou já removida
+            }
+        }
+    }
+
+    /** Momento da última parte recebida (ou da criação do upload). */
+    private static Instant ultimaAlteracao(Upload upload) throws IOException {
+        return Files.getLastModifiedTime(upload.arquivo()).toInstant();
+    }
+
+    private static void apagar(Path pasta) throws IOException {
+        if (!Files.isDirectory(pasta)) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.list(pasta)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+        Files.deleteIfExists(pasta);
+    }
+
+    /** Quantidade de travas mantidas em memória. */
+    int travasAtivas() {
+        return travas.size();
+    }
+
+    /** Pasta do upload; ids que não são UUID são tratados como inexistentes. */
+    private Path pasta(String id) {
+        try {
+            return raiz.resolve(UUID.fromString(id).toString());
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("Upload não encontrado: " + id);
+        }
+    }
+
+    private Upload carregar(String id) throws IOException {
+        Path pasta = pasta(id);
+        Path metadados = pasta.resolve(METADADOS);
+        if (!Files.exists(metadados)) {
+            throw new ResourceNotFoundException("Upload não encontrado: " + id);
+        }
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metadados)) {
+            meta.load(in);
+        }
+        String nome = meta.getProperty("nome");
+        return new Upload(id, nome, Long.parseLong(meta.getProperty("tamanho")), pasta.resolve(nome));
+    }
+
+    private record Upload(String id, String nome, long tamanho, Path arquivo) {
+
+        UploadParcialResponse status(long recebidos) {
+            return new UploadParcialResponse(id, nome, tamanho, recebidos, recebidos == tamanho);
+        }
+    }
+}
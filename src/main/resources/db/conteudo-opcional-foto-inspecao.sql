@@ -0,0 +1,9 @@
+-- Permite NULL em foto_inspecao.conteudo. As fotos novas são gravadas no
+-- armazenamento em disco (ab/cd/<hash>) e não preenchem mais o LONGBLOB, mas
+-- o ddl-auto: update não altera a nulidade de colunas já existentes: sem
+-- este script todo insert de foto falha em bancos criados antes da mudança.
+--
+-- Rodar uma única vez, antes de subir a versão nova da aplicação. O conteúdo
+-- das fotos antigas não é tocado, e executar de novo não tem efeito.
+
+ALTER TABLE foto_inspecao MODIFY conteudo LONGBLOB NULL;
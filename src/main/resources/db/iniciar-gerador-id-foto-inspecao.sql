@@ -0,0 +1,16 @@
+-- Prepara o gerador de ids de foto_inspecao, que passou de IDENTITY para
+-- blocos reservados na tabela gerador_id (pooled-lo). Sem esta carga o
+-- gerador começaria em 1 e colidiria com os ids das fotos já gravadas.
+--
+-- Rodar uma única vez, antes de subir a versão nova da aplicação. Se a
+-- aplicação já tiver criado a linha do gerador, ela só é adiantada, nunca
+-- recuada, então o script pode ser executado de novo sem risco.
+
+CREATE TABLE IF NOT EXISTS gerador_id (
+    nome     VARCHAR(255) NOT NULL PRIMARY KEY,
+    proximo  BIGINT
+);
+
+INSERT INTO gerador_id (nome, proximo)
+SELECT 'foto_inspecao', COALESCE(MAX(id), 0) + 1 FROM foto_inspecao
+    ON DUPLICATE KEY UPDATE proximo = GREATEST(COALESCE(proximo, 0), VALUES(proximo));
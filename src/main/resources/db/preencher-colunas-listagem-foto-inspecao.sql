@@ -0,0 +1,38 @@
+-- Copia worder e inspetor_id da inspeção para as fotos gravadas antes dessas
+-- colunas existirem em foto_inspecao. Sem elas, as fotos antigas não aparecem
+-- nas listagens paginadas nem entram na detecção de fotos repetidas.
+--
+-- Rodar uma única vez, depois que a aplicação criar as colunas
+-- (ddl-auto: update). A atualização anda por faixas de id, com commit a cada
+-- faixa, para não travar a tabela inteira nem acumular undo em uma única
+-- transação. Pode ser interrompida e executada de novo: fotos já preenchidas
+-- são ignoradas.
+
+DROP PROCEDURE IF EXISTS preencher_colunas_listagem_foto_inspecao;
+
+DELIMITER //
+CREATE PROCEDURE preencher_colunas_listagem_foto_inspecao(IN tamanho_lote INT)
+BEGIN
+    DECLARE atual BIGINT DEFAULT 0;
+    DECLARE maximo BIGINT;
+
+    SELECT COALESCE(MAX(id), 0) INTO maximo FROM foto_inspecao;
+
+    WHILE atual < maximo DO
+        START TRANSACTION;
+        UPDATE foto_inspecao f
+            JOIN inspecao i ON i.id = f.inspecao_id
+           SET f.worder = i.worder,
+               f.inspetor_id = i.inspetor_id
+         WHERE f.id > atual
+           AND f.id <= atual + tamanho_lote
+           AND f.worder IS NULL;
+        COMMIT;
+        SET atual = atual + tamanho_lote;
+    END WHILE;
+END //
+DELIMITER ;
+
+CALL preencher_colunas_listagem_foto_inspecao(5000);
+
+DROP PROCEDURE preencher_colunas_listagem_foto_inspecao;
@@ -0,0 +1,68 @@
+package br.com.portfoliopelusci.controller;
+
+import br.com.portfoliopelusci.exceptions.ResourceNotFoundException;
+import br.com.portfoliopelusci.inspecao.controller.FotoInspecaoController;
+import br.com.portfoliopelusci.inspecao.service.ConsultaFotosService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class FotoInspecaoControllerTest {
+
+    private static final String HASH = "a".repeat(64);
+
+    private ConsultaFotosService service;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path arquivo = Files.createTempFile("foto", ".jpg");
+        Files.writeString(arquivo, "0123456789", StandardCharsets.UTF_8);
+        service = mock(ConsultaFotosService.class);
+        when(service.buscarArquivo("1001", 7L))
+                .thenReturn(new ConsultaFotosService.ArquivoFoto("foto1.jpg", "image/jpeg", HASH, arquivo));
+        mvc = MockMvcBuilders.standaloneSetup(new FotoInspecaoController(service)).build();
+    }
+
+    @Test
+    void enviaFotoComEtag() throws Exception {
+        mvc.perform(get("/inspecoes/1001/fotos/7"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void respondeTrechoSolicitadoPorRange() throws Exception {
+        mvc.perform(get("/inspecoes/1001/fotos/7").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void respondeNaoModificadoQuandoEtagCoincide() throws Exception {
+        mvc.perform(get("/inspecoes/1001/fotos/7").header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void respondeNaoEncontradaSemConteudo() throws Exception {
+        when(service.buscarArquivo("1001", 8L)).thenThrow(new ResourceNotFoundException("Foto 8 sem conteúdo."));
+
+        mvc.perform(get("/inspecoes/1001/fotos/8"))
+                .andExpect(status().isNotFound());
+    }
+}
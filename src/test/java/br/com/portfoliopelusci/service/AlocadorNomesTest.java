@@ -0,0 +1,87 @@
+package br.com.portfoliopelusci.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlocadorNomesTest {
+
+    @Test
+    void pulaNomesExistentesEReservados() throws IOException {
+        Path dir = Files.createTempDirectory("alocador");
+        Files.createDirectories(dir.resolve("1001 A N"));
+        Files.createDirectories(dir.resolve("1001 A N-1"));
+        Files.createDirectories(dir.resolve("1001 A N-3"));
+
+        AlocadorNomes nomes = new AlocadorNomes();
+        assertEquals(dir.resolve("1001 A N-2"), nomes.alocar(dir.resolve("1001 A N"), false));
+        assertEquals(dir.resolve("1001 A N-4"), nomes.alocar(dir.resolve("1001 A N"), false));
+        assertEquals(dir.resolve("1002 B R"), nomes.alocar(dir.resolve("1002 B R"), false));
+        assertEquals(dir.resolve("1002 B R-1"), nomes.alocar(dir.resolve("1002 B R"), false));
+    }
+
+    @Test
+    void diretorioInexistenteComecaVazio() throws IOException {
+        Path dir = Files.createTempDirectory("alocador2").resolve("novo");
+
+        AlocadorNomes nomes = new AlocadorNomes();
+        assertEquals(dir.resolve("x"), nomes.alocar(dir.resolve("x"), false));
+        assertEquals(dir.resolve("x-1"), nomes.alocar(dir.resolve("x"), false));
+    }
+
+    @Test
+    void alocacoesConcorrentesNaoRepetemNomes() throws IOException {
+        Path dir = Files.createTempDirectory("alocador3");
+        AlocadorNomes nomes = new AlocadorNomes();
+
+        Set<Path> alocados = ConcurrentHashMap.newKeySet();
+        List<Integer> tarefas = IntStream.range(0, 200).boxed().toList();
+        new ExecucaoParalela("teste", 8).executar(tarefas, i -> alocados.add(nomes.alocar(dir.resolve("ordem"), false)));
+
+        assertEquals(200, alocados.size());
+        assertTrue(alocados.contains(dir.resolve("ordem")));
+        assertTrue(alocados.contains(dir.resolve("ordem-199")));
+    }
+
+    @Test
+    void execucoesDiferentesReservamNomesDiferentes() throws IOException {
+        Path dir = Files.createTempDirectory("alocador5");
+        AlocadorNomes primeira = new AlocadorNomes();
+        AlocadorNomes segunda = new AlocadorNomes();
+
+        // As duas listariam o diretório vazio; a pasta criada pela primeira decide
+        assertEquals(dir.resolve("ORDER"), primeira.alocar(dir.resolve("ORDER"), false));
+        assertEquals(dir.resolve("ORDER-1"), segunda.alocar(dir.resolve("ORDER"), false));
+        assertEquals(dir.resolve("ORDER-2"), primeira.alocar(dir.resolve("ORDER"), false));
+        assertTrue(Files.isDirectory(dir.resolve("ORDER-1")));
+        assertTrue(Files.isDirectory(dir.resolve("ORDER-2")));
+    }
+
+    @Test
+    void dryRunNaoCriaPastas() throws IOException {
+        Path dir = Files.createTempDirectory("alocador6");
+        Files.createDirectories(dir.resolve("ORDER"));
+        AlocadorNomes nomes = new AlocadorNomes();
+
+        assertEquals(dir.resolve("ORDER-1"), nomes.alocar(dir.resolve("ORDER"), true));
+        assertEquals(dir.resolve("ORDER-2"), nomes.alocar(dir.resolve("ORDER"), true));
+        assertFalse(Files.exists(dir.resolve("ORDER-1")));
+    }
+
+    @Test
+    void reivindicarAceitaCadaCaminhoUmaVez() throws IOException {
+        Path dir = Files.createTempDirectory("alocador4");
+        AlocadorNomes nomes = new AlocadorNomes();
+
+        assertTrue(nomes.reivindicar(dir.resolve("Geovane")));
+        assertFalse(nomes.reivindicar(dir.resolve("Geovane")));
+    }
+}
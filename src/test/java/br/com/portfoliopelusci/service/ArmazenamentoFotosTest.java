@@ -0,0 +1,112 @@
+package br.com.portfoliopelusci.service;
+
+import br.com.portfoliopelusci.inspecao.config.InspecaoProperties;
+import br.com.portfoliopelusci.inspecao.service.ArmazenamentoFotos;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArmazenamentoFotosTest {
+
+    @Test
+    void gravaPorHashEmSubpastasSemDuplicar() throws Exception {
+        Path raiz = Files.createTempDirectory("fotos");
+        InspecaoProperties props = new InspecaoProperties();
+        props.setArmazenamentoPath(raiz.toString());
+        ArmazenamentoFotos armazenamento = new ArmazenamentoFotos(props);
+
+        byte[] conteudo = "jpeg-data".getBytes(StandardCharsets.UTF_8);
+        ArmazenamentoFotos.FotoArmazenada primeira = salvar(armazenamento, conteudo, conteudo.length);
+        ArmazenamentoFotos.FotoArmazenada segunda = salvar(armazenamento, conteudo, conteudo.length);
+
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo)), primeira.hash());
+        assertEquals(primeira, segunda);
+        assertEquals(conteudo.length, primeira.tamanho());
+
+        Path arquivo = armazenamento.caminho(primeira.hash());
+        assertEquals(raiz.resolve(primeira.hash().substring(0, 2)).resolve(primeira.hash().substring(2, 4)), arquivo.getParent());
+        assertArrayEquals(conteudo, Files.readAllBytes(arquivo));
+        try (Stream<Path> temporarios = Files.list(raiz.resolve("tmp"))) {
+            assertEquals(0, temporarios.count());
+        }
+    }
+
+    @Test
+    void interrompeQuandoConteudoExcedeLimite() throws Exception {
+        Path raiz = Files.createTempDirectory("fotos");
+        InspecaoProperties props = new InspecaoProperties();
+        props.setArmazenamentoPath(raiz.toString());
+        ArmazenamentoFotos armazenamento = new ArmazenamentoFotos(props);
+
+        byte[] conteudo = new byte[10_000];
+        assertThrows(ArmazenamentoFotos.LimiteExcedidoException.class,
+                () -> armazenamento.gravarTemporario(new ByteArrayInputStream(conteudo), new byte[1024], 4096));
+
+        try (Stream<Path> arquivos = Files.walk(raiz)) {
+            assertEquals(0, arquivos.filter(Files::isRegularFile).count());
+        }
+        assertEquals(conteudo.length, salvar(armazenamento, conteudo, conteudo.length).tamanho());
+    }
+
+    @Test
+    void rejeitaHashInvalido() {
+        ArmazenamentoFotos armazenamento = new ArmazenamentoFotos(new InspecaoProperties());
+
+        assertThrows(IllegalArgumentException.class, () -> armazenamento.caminho("../../etc/passwd"));
+    }
+
+    @Test
+    void descartaSoArquivosNaoUsadosPorOutraGravacao() throws Exception {
+        Path raiz = Files.createTempDirectory("fotos");
+        InspecaoProperties props = new InspecaoProperties();
+        props.setArmazenamentoPath(raiz.toString());
+        ArmazenamentoFotos armazenamento = new ArmazenamentoFotos(props);
+        byte[] buffer = new byte[1024];
+
+        Set<String> novas = new HashSet<>();
+        String descartada = armazenar(armazenamento, "descartada", buffer, novas);
+        String compartilhada = armazenar(armazenamento, "compartilhada", buffer, novas);
+        assertEquals(Set.of(descartada, compartilhada), novas);
+        // Outra importação encontra o mesmo conteúdo antes do descarte
+        Set<String> outras = new HashSet<>();
+        armazenar(armazenamento, "compartilhada", buffer, outras);
+        assertTrue(outras.isEmpty());
+
+        armazenamento.descartar(novas);
+
+        assertFalse(Files.exists(armazenamento.caminho(descartada)));
+        assertTrue(Files.exists(armazenamento.caminho(compartilhada)));
+
+        Set<String> confirmadas = new HashSet<>();
+        String confirmada = armazenar(armazenamento, "confirmada", buffer, confirmadas);
+        armazenamento.confirmar(confirmadas);
+        armazenamento.descartar(confirmadas);
+        assertTrue(Files.exists(armazenamento.caminho(confirmada)));
+    }
+
+    private static String armazenar(ArmazenamentoFotos armazenamento, String conteudo, byte[] buffer,
+                                    Set<String> novas) throws IOException {
+        Path temp = armazenamento.gravarTemporario(
+                new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), buffer, 1024);
+        return armazenamento.armazenar(temp, buffer, novas).hash();
+    }
+
+    /** Gravação em duas fases, como na importação do ZIP. */
+    private static ArmazenamentoFotos.FotoArmazenada salvar(ArmazenamentoFotos armazenamento, byte[] conteudo,
+                                                           long limite) throws IOException {
+        byte[] buffer = new byte[1024];
+        Path temp = armazenamento.gravarTemporario(new ByteArrayInputStream(conteudo), buffer, limite);
+        return armazenamento.armazenar(temp, buffer);
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.portfoliopelusci.service;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachePlanilhaTest {
+
+    @Test
+    void reaproveitaLinhasEnquantoArquivoNaoMuda() throws IOException {
+        Path excel = createExcel(Files.createTempDirectory("cache").resolve("plan.xlsx"), "1001", "1002");
+        CachePlanilha cache = new CachePlanilha(() -> 1024 * 1024);
+
+        assertEquals(List.of("1001", "1002"), lerNumeros(cache, excel));
+        assertEquals(List.of("1001", "1002"), lerNumeros(cache, excel));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+
+        createExcel(excel, "2001");
+        Files.setLastModifiedTime(excel, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        assertEquals(List.of("2001"), lerNumeros(cache, excel));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void naoGuardaPlanilhaMaiorQueOLimite() throws IOException {
+        Path excel = createExcel(Files.createTempDirectory("cache2").resolve("plan.xlsx"), "1001", "1002");
+        CachePlanilha cache = new CachePlanilha(() -> 10);
+
+        assertEquals(List.of("1001", "1002"), lerNumeros(cache, excel));
+        assertEquals(List.of("1001", "1002"), lerNumeros(cache, excel));
+        assertEquals(2, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+
+    private static List<String> lerNumeros(CachePlanilha cache, Path excel) throws IOException {
+        List<String> numeros = new ArrayList<>();
+        cache.ler(excel, 0, linha -> numeros.add(linha.texto(0)));
+        return numeros;
+    }
+
+    private static Path createExcel(Path file, String... numeros) throws IOException {
+        try (Workbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet();
+            sheet.createRow(0).createCell(0).setCellValue("WORDER");
+            for (int i = 0; i < numeros.length; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(numeros[i]);
+            }
+            try (var out = Files.newOutputStream(file)) {
+                wb.write(out);
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.portfoliopelusci.service;
+
+import br.com.portfoliopelusci.exceptions.ResourceNotFoundException;
+import br.com.portfoliopelusci.inspecao.dto.FotoInspecaoResumo;
+import br.com.portfoliopelusci.inspecao.dto.PaginaResponse;
+import br.com.portfoliopelusci.inspecao.repository.FotoInspecaoRepository;
+import br.com.portfoliopelusci.inspecao.repository.InspecaoRepository;
+import br.com.portfoliopelusci.inspecao.service.ArmazenamentoFotos;
+import br.com.portfoliopelusci.inspecao.service.ConsultaFotosService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultaFotosServiceTest {
+
+    @Mock
+    private InspecaoRepository inspecaoRepository;
+
+    @Mock
+    private FotoInspecaoRepository fotoInspecaoRepository;
+
+    @Mock
+    private ArmazenamentoFotos armazenamento;
+
+    @InjectMocks
+    private ConsultaFotosService service;
+
+    @Test
+    void paginaPorChaveAteAUltimaPagina() {
+        FotoInspecaoResumo f1 = new FotoInspecaoResumo(10L, "1001", "a.jpg", "image/jpeg", 5L, "h1");
+        FotoInspecaoResumo f2 = new FotoInspecaoResumo(12L, "1001", "b.jpg", "image/jpeg", 6L, "h2");
+        FotoInspecaoResumo f3 = new FotoInspecaoResumo(15L, "1001", "c.jpg", "image/jpeg", 7L, "h3");
+        when(fotoInspecaoRepository.listarPorWorder("1001", 0L, PageRequest.ofSize(2))).thenReturn(List.of(f1, f2));
+        when(fotoInspecaoRepository.listarPorWorder("1001", 12L, PageRequest.ofSize(2))).thenReturn(List.of(f3));
+
+        PaginaResponse<FotoInspecaoResumo> primeira = service.listarFotosPorWorder("1001", null, 2);
+        PaginaResponse<FotoInspecaoResumo> segunda = service.listarFotosPorWorder("1001", primeira.proximo(), 2);
+
+        assertEquals(List.of(f1, f2), primeira.itens());
+        assertEquals(12L, primeira.proximo());
+        assertEquals(List.of(f3), segunda.itens());
+        assertNull(segunda.proximo());
+    }
+
+    @Test
+    void limitaTamanhoDaPagina() {
+        when(fotoInspecaoRepository.listarPorInspetor("INSP-1", 0L, PageRequest.ofSize(ConsultaFotosService.LIMITE_MAXIMO)))
+                .thenReturn(List.of());
+
+        assertNull(service.listarFotosPorInspetor("INSP-1", null, 50_000).proximo());
+        assertThrows(IllegalArgumentException.class, () -> service.listarInspecoes("INSP-1", null, 0));
+        verifyNoInteractions(inspecaoRepository);
+    }
+
+    @Test
+    void naoServeFotoSemHash() {
+        FotoInspecaoRepository.ArquivoFoto legado = mock(FotoInspecaoRepository.ArquivoFoto.class);
+        when(fotoInspecaoRepository.findArquivoByIdAndWorder(7L, "1001")).thenReturn(Optional.of(legado));
+
+        assertThrows(ResourceNotFoundException.class, () -> service.buscarArquivo("1001", 7L));
+        verifyNoInteractions(armazenamento);
+    }
+}
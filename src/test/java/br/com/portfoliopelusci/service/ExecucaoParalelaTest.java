@@ -0,0 +1,47 @@
+package br.com.portfoliopelusci.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecucaoParalelaTest {
+
+    @Test
+    void limitaThreadsEntreChamadasSimultaneasEExecutaAninhadasNaPropriaThread() throws Exception {
+        ExecucaoParalela pool = new ExecucaoParalela("teste", 2);
+        AtomicInteger ativas = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        List<Integer> itens = IntStream.range(0, 8).boxed().toList();
+
+        ExecucaoParalela.Acao<Integer> acao = item -> {
+            int agora = ativas.incrementAndGet();
+            maximo.accumulateAndGet(agora, Math::max);
+            // Trabalho aninhado no mesmo pool não espera por threads livres
+            pool.executar(List.of(1, 2), interno -> { });
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ativas.decrementAndGet();
+        };
+
+        Thread outra = new Thread(() -> {
+            try {
+                pool.executar(itens, acao);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        outra.start();
+        pool.executar(itens, acao);
+        outra.join();
+
+        assertTrue(maximo.get() <= 2, "threads simultâneas: " + maximo.get());
+        pool.encerrar();
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.portfoliopelusci.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtratorZipTest {
+
+    @Test
+    void extraiEntradasEmParalelo() throws IOException {
+        Path temp = Files.createTempDirectory("extrator");
+        Path zip = temp.resolve("ordens.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("1001/"));
+            out.closeEntry();
+            for (int i = 0; i < 20; i++) {
+                out.putNextEntry(new ZipEntry("1001/foto" + i + ".txt"));
+                out.write(("conteudo " + i).getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+
+        Path target = temp.resolve("saida");
+        ExtratorZip.extrair(zip, target, new ExecucaoParalela("teste", 4));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("conteudo " + i, Files.readString(target.resolve("1001").resolve("foto" + i + ".txt")));
+        }
+    }
+
+    @Test
+    void rejeitaEntradaForaDoDestino() throws IOException {
+        Path temp = Files.createTempDirectory("extrator2");
+        Path zip = temp.resolve("malicioso.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("../fora.txt"));
+            out.write(1);
+            out.closeEntry();
+        }
+
+        Path target = temp.resolve("saida");
+        IOException ex = assertThrows(IOException.class, () -> ExtratorZip.extrair(zip, target, new ExecucaoParalela("teste", 2)));
+        assertEquals("Entrada inválida: ../fora.txt", ex.getMessage());
+        assertFalse(Files.exists(temp.resolve("fora.txt")));
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.portfoliopelusci.service;
+
+import br.com.portfoliopelusci.inspecao.config.InspecaoProperties;
+import br.com.portfoliopelusci.inspecao.dto.ImportacaoZipInternoResponse;
+import br.com.portfoliopelusci.inspecao.dto.UploadZipResponse;
+import br.com.portfoliopelusci.inspecao.entity.Inspecao;
+import br.com.portfoliopelusci.inspecao.entity.Inspetor;
+import br.com.portfoliopelusci.inspecao.repository.FotoInspecaoRepository;
+import br.com.portfoliopelusci.inspecao.repository.InspecaoRepository;
+import br.com.portfoliopelusci.inspecao.repository.InspetorRepository;
+import br.com.portfoliopelusci.inspecao.service.ArmazenamentoFotos;
+import br.com.portfoliopelusci.inspecao.service.ExecutoresInspecao;
+import br.com.portfoliopelusci.inspecao.service.ImportacaoZipPaiService;
+import br.com.portfoliopelusci.inspecao.service.UploadInspecaoZipService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ImportacaoZipPaiServiceTest {
+
+    @Test
+    void importaCadaZipInternoNaOrdemDoPai() throws IOException {
+        UploadInspecaoZipService uploadService = mock(UploadInspecaoZipService.class);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(uploadService.processarDoInspetor(anyString(), any(InputStream.class))).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            String inspetor = invocation.getArgument(0);
+            byte[] conteudo = invocation.<InputStream>getArgument(1).readAllBytes();
+            return new UploadZipResponse(inspetor, 1, conteudo.length, 0);
+        });
+        InspecaoProperties props = new InspecaoProperties();
+        props.setZipsParalelos(2);
+
+        byte[] pai = zip(
+                "lote/20250806-JOHN.zip", "um".getBytes(),
+                "leia-me.txt", "ignorado".getBytes(),
+                "20250806-mary.zip", "dois".getBytes(),
+                "Ana.ZIP", "tres!".getBytes());
+
+        ExecutoresInspecao executores = new ExecutoresInspecao(props);
+        ImportacaoZipPaiService service = new ImportacaoZipPaiService(uploadService, props, executores);
+        List<ImportacaoZipInternoResponse> respostas;
+        try {
+            respostas = service.processar(new ByteArrayInputStream(pai));
+            service.processar(new ByteArrayInputStream(pai));
+        } finally {
+            executores.encerrar();
+        }
+
+        // Mesmo inspetor que OrganizadorService usa para a pasta do ZIP interno
+        assertEquals(List.of("John", "Mary", "Ana"),
+                respostas.stream().map(r -> r.resumo().inspetorId()).toList());
+        assertEquals(List.of("20250806-JOHN.zip", "20250806-mary.zip", "Ana.ZIP"),
+                respostas.stream().map(ImportacaoZipInternoResponse::arquivo).toList());
+        assertEquals(List.of(2, 4, 5), respostas.stream().map(r -> r.resumo().fotosSalvas()).toList());
+        assertTrue(respostas.stream().allMatch(r -> r.erro() == null));
+        verify(uploadService, times(6)).processarDoInspetor(anyString(), any(InputStream.class));
+        // As duas chamadas usaram o mesmo pool, limitado a zipsParalelos threads
+        assertTrue(threads.size() <= 2, "threads: " + threads);
+        assertTrue(threads.stream().allMatch(nome -> nome.startsWith("importacao-zip-pai-")), "threads: " + threads);
+    }
+
+    @Test
+    void importaEmSequenciaZipsInternosDoMesmoInspetor() throws IOException {
+        // Banco simulado: salvar de novo a mesma chave falha como as chaves únicas do MySQL
+        Set<String> inspetores = ConcurrentHashMap.newKeySet();
+        Set<String> worders = ConcurrentHashMap.newKeySet();
+        InspetorRepository inspetorRepository = mock(InspetorRepository.class);
+        InspecaoRepository inspecaoRepository = mock(InspecaoRepository.class);
+        FotoInspecaoRepository fotoInspecaoRepository = mock(FotoInspecaoRepository.class);
+        when(inspetorRepository.findById("John")).thenAnswer(invocation -> {
+            // Alarga a janela entre procurar e criar o inspetor
+            Thread.sleep(100);
+            return inspetores.contains("John") ? Optional.of(new Inspetor("John")) : Optional.empty();
+        });
+        when(inspetorRepository.save(any(Inspetor.class))).thenAnswer(invocation -> {
+            Inspetor novo = invocation.getArgument(0);
+            if (!inspetores.add(novo.getId())) {
+                throw new DataIntegrityViolationException("Duplicate entry for key 'PRIMARY'");
+            }
+            return novo;
+        });
+        when(inspecaoRepository.findByInspetorId("John")).thenAnswer(invocation -> worders.stream()
+                .map(w -> new Inspecao(w, new Inspetor("John"))).toList());
+        when(inspecaoRepository.save(any(Inspecao.class))).thenAnswer(invocation -> {
+            Inspecao nova = invocation.getArgument(0);
+            if (!worders.add(nova.getWorder())) {
+                throw new DataIntegrityViolationException("Duplicate entry for key 'uk_inspecao_inspetor_worder'");
+            }
+            return nova;
+        });
+
+        InspecaoProperties props = new InspecaoProperties();
+        props.setZipsParalelos(2);
+        props.setArmazenamentoPath(Files.createTempDirectory("fotos").toString());
+        ExecutoresInspecao executores = new ExecutoresInspecao(props);
+        UploadInspecaoZipService uploadService = new UploadInspecaoZipService(inspetorRepository,
+                inspecaoRepository, fotoInspecaoRepository, new ArmazenamentoFotos(props), props, executores,
+                mock(EntityManager.class), TransactionOperations.withoutTransaction());
+        ImportacaoZipPaiService service = new ImportacaoZipPaiService(uploadService, props, executores);
+
+        byte[] pai = zip(
+                "20250806-JOHN.zip", zip("1001/foto1.jpg", "um".getBytes()),
+                "20250807-JOHN.zip", zip("1001/foto2.jpg", "dois".getBytes()));
+        List<ImportacaoZipInternoResponse> respostas;
+        try {
+            respostas = service.processar(new ByteArrayInputStream(pai));
+        } finally {
+            executores.encerrar();
+        }
+
+        assertTrue(respostas.stream().allMatch(r -> r.erro() == null), "respostas: " + respostas);
+        assertEquals(List.of("John", "John"), respostas.stream().map(r -> r.resumo().inspetorId()).toList());
+        assertEquals(List.of(1, 1), respostas.stream().map(r -> r.resumo().fotosSalvas()).toList());
+        verify(inspetorRepository, times(1)).save(any(Inspetor.class));
+        verify(inspecaoRepository, times(1)).save(any(Inspecao.class));
+    }
+
+    @Test
+    void importaDemaisEInformaFalhaDeCadaZip() throws IOException {
+        UploadInspecaoZipService uploadService = mock(UploadInspecaoZipService.class);
+        when(uploadService.processarDoInspetor(eq("Um"), any(InputStream.class)))
+                .thenThrow(new IllegalArgumentException("ZIP inválido"));
+        when(uploadService.processarDoInspetor(eq("Dois"), any(InputStream.class)))
+                .thenReturn(new UploadZipResponse("Dois", 1, 1, 0));
+
+        byte[] pai = zip("L-UM.zip", "um".getBytes(), "L-DOIS.zip", "dois".getBytes());
+
+        InspecaoProperties props = new InspecaoProperties();
+        ExecutoresInspecao executores = new ExecutoresInspecao(props);
+        ImportacaoZipPaiService service = new ImportacaoZipPaiService(uploadService, props, executores);
+        List<ImportacaoZipInternoResponse> respostas;
+        try {
+            respostas = service.processar(new ByteArrayInputStream(pai));
+        } finally {
+            executores.encerrar();
+        }
+
+        assertEquals(List.of(
+                ImportacaoZipInternoResponse.falha("L-UM.zip", "ZIP inválido"),
+                ImportacaoZipInternoResponse.sucesso("L-DOIS.zip", new UploadZipResponse("Dois", 1, 1, 0))), respostas);
+    }
+
+    @Test
+    void informaZipsImportadosQuandoZipPaiFicaIlegivel() throws IOException {
+        UploadInspecaoZipService uploadService = mock(UploadInspecaoZipService.class);
+        when(uploadService.processarDoInspetor(eq("Um"), any(InputStream.class)))
+                .thenReturn(new UploadZipResponse("Um", 1, 1, 0));
+
+        byte[] completo = zip("L-UM.zip", "um".getBytes(), "L-DOIS.zip", new byte[4096]);
+        // Corta o ZIP pai no meio da segunda entrada
+        byte[] pai = Arrays.copyOf(completo, completo.length / 2);
+
+        InspecaoProperties props = new InspecaoProperties();
+        ExecutoresInspecao executores = new ExecutoresInspecao(props);
+        ImportacaoZipPaiService service = new ImportacaoZipPaiService(uploadService, props, executores);
+        List<ImportacaoZipInternoResponse> respostas;
+        try {
+            respostas = service.processar(new ByteArrayInputStream(pai));
+        } finally {
+            executores.encerrar();
+        }
+
+        assertEquals(2, respostas.size());
+        assertEquals(ImportacaoZipInternoResponse.sucesso("L-UM.zip", new UploadZipResponse("Um", 1, 1, 0)),
+                respostas.get(0));
+        assertNull(respostas.get(1).arquivo());
+        assertNotNull(respostas.get(1).erro());
+        verify(uploadService, never()).processarDoInspetor(eq("Dois"), any(InputStream.class));
+    }
+
+    private static byte[] zip(Object... dados) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            for (int i = 0; i < dados.length; i += 2) {
+                zos.putNextEntry(new ZipEntry((String) dados[i]));
+                zos.write((byte[]) dados[i + 1]);
+                zos.closeEntry();
+            }
+        }
+        return baos.toByteArray();
+    }
+}
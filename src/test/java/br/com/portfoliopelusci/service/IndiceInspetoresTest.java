@@ -0,0 +1,51 @@
+package br.com.portfoliopelusci.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceInspetoresTest {
+
+    @Test
+    void mantemLinhasDeOutraInstanciaAoGravar() throws Exception {
+        Path dir = Files.createTempDirectory("indice");
+        Path arquivo = dir.resolve("indice.tsv");
+        Path pasta = Files.createDirectories(dir.resolve("ordens"));
+
+        IndiceInspetores primeira = IndiceInspetores.carregar(arquivo);
+        IndiceInspetores segunda = IndiceInspetores.carregar(arquivo);
+        primeira.registrar("1001", "Ana", pasta);
+        segunda.registrar("1002", "Bruno", pasta);
+        primeira.salvar();
+        segunda.salvar();
+        primeira.recarregarSeAlterado();
+
+        assertEquals("Ana", primeira.buscar("1001"));
+        assertEquals("Bruno", primeira.buscar("1002"));
+        assertEquals("Ana", IndiceInspetores.carregar(arquivo).buscar("1001"));
+    }
+
+    @Test
+    void recarregaArquivoRegravadoComMesmoTamanho() throws Exception {
+        Path dir = Files.createTempDirectory("indice");
+        Path arquivo = dir.resolve("indice.tsv");
+        Files.writeString(arquivo, "1001\tAna\n", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(arquivo, FileTime.from(Instant.now().minusSeconds(60)));
+
+        IndiceInspetores indice = IndiceInspetores.carregar(arquivo);
+        assertEquals("Ana", indice.buscar("1001"));
+
+        // Outra instância regrava o arquivo com o mesmo tamanho
+        Files.writeString(arquivo, "1001\tBia\n", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(arquivo, FileTime.from(Instant.now()));
+        indice.recarregarSeAlterado();
+
+        assertEquals("Bia", indice.buscar("1001"));
+    }
+}
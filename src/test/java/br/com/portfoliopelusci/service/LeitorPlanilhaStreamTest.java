@@ -0,0 +1,93 @@
+package br.com.portfoliopelusci.service;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorPlanilhaStreamTest {
+
+    @Test
+    void leCabecalhoELinhasComDatasNativas() throws IOException {
+        Path temp = Files.createTempDirectory("leitor");
+        Path excel = temp.resolve("plan.xlsx");
+        try (Workbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet("Ordens");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("WORDER");
+            header.createCell(1).setCellValue("OTYPE");
+            header.createCell(2).setCellValue("DUEDATE");
+
+            CellStyle dataStyle = wb.createCellStyle();
+            dataStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("m/d/yy"));
+
+            Row r1 = sheet.createRow(1);
+            r1.createCell(0).setCellValue(350394452);
+            r1.createCell(1).setCellValue("A");
+            Cell due = r1.createCell(2);
+            due.setCellValue(LocalDate.of(2025, 8, 6));
+            due.setCellStyle(dataStyle);
+
+            Row r3 = sheet.createRow(3);
+            r3.createCell(0).setCellValue("350394453");
+            r3.createCell(2).setCellValue("08/07/2025");
+
+            try (var out = Files.newOutputStream(excel)) {
+                wb.write(out);
+            }
+        }
+
+        List<String> nomes = new ArrayList<>();
+        List<LeitorPlanilhaStream.Linha> linhas = new ArrayList<>();
+        LeitorPlanilhaStream.ler(excel, 0, new LeitorPlanilhaStream.Visitante() {
+            @Override
+            public void cabecalho(String nomeAba, String[] colunas, int numeroLinha) {
+                nomes.add(nomeAba);
+                nomes.addAll(List.of(colunas));
+            }
+
+            @Override
+            public void linha(LeitorPlanilhaStream.Linha linha) {
+                linhas.add(linha);
+            }
+        });
+
+        assertEquals(List.of("Ordens", "WORDER", "OTYPE", "DUEDATE"), nomes);
+        assertEquals(2, linhas.size());
+
+        LeitorPlanilhaStream.Linha primeira = linhas.get(0);
+        assertEquals(2, primeira.numero());
+        assertEquals("350394452", primeira.texto(0));
+        assertEquals("A", primeira.texto(1));
+        assertEquals(LocalDate.of(2025, 8, 6), primeira.data(2));
+
+        LeitorPlanilhaStream.Linha segunda = linhas.get(1);
+        assertEquals(4, segunda.numero());
+        assertEquals("", segunda.texto(1));
+        assertEquals("08/07/2025", segunda.texto(2));
+        assertNull(segunda.data(2));
+    }
+
+    @Test
+    void falhaQuandoAbaNaoExiste() throws IOException {
+        Path excel = Files.createTempDirectory("leitor2").resolve("plan.xlsx");
+        try (Workbook wb = new XSSFWorkbook()) {
+            wb.createSheet().createRow(0).createCell(0).setCellValue("WORDER");
+            try (var out = Files.newOutputStream(excel)) {
+                wb.write(out);
+            }
+        }
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> LeitorPlanilhaStream.ler(excel, 1, linha -> { }));
+        assertEquals("Aba 1 não encontrada no Excel.", ex.getMessage());
+    }
+}
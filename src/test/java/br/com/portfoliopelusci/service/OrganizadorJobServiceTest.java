@@ -0,0 +1,81 @@
+package br.com.portfoliopelusci.service;
+
+import br.com.portfoliopelusci.config.OrganizadorProperties;
+import br.com.portfoliopelusci.dto.JobStatusResponse;
+import br.com.portfoliopelusci.exceptions.FilaCheiaException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrganizadorJobServiceTest {
+
+    @Test
+    void executaJobEmSegundoPlanoERegistraProgresso() throws InterruptedException {
+        OrganizadorJobService jobs = new OrganizadorJobService(new OrganizadorProperties());
+        try {
+            JobStatusResponse inicial = jobs.submeter("teste", progresso -> {
+                progresso.linhaProcessada();
+                progresso.bytesCopiados(10);
+            });
+
+            JobStatusResponse fim = aguardarFim(jobs, inicial.id());
+            assertEquals("CONCLUIDO", fim.estado());
+            assertEquals(1, fim.linhasProcessadas());
+            assertEquals(10, fim.bytesCopiados());
+            assertNull(fim.erro());
+        } finally {
+            jobs.encerrar();
+        }
+    }
+
+    @Test
+    void registraErroDoJob() throws InterruptedException {
+        OrganizadorJobService jobs = new OrganizadorJobService(new OrganizadorProperties());
+        try {
+            JobStatusResponse inicial = jobs.submeter("teste", progresso -> {
+                throw new IOException("falhou");
+            });
+
+            JobStatusResponse fim = aguardarFim(jobs, inicial.id());
+            assertEquals("ERRO", fim.estado());
+            assertEquals("falhou", fim.erro());
+            assertTrue(jobs.consultar("inexistente").isEmpty());
+        } finally {
+            jobs.encerrar();
+        }
+    }
+
+    @Test
+    void recusaJobQuandoFilaEstaCheia() throws InterruptedException {
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setJobThreads(1);
+        props.setJobQueueCapacity(1);
+        OrganizadorJobService jobs = new OrganizadorJobService(props);
+        CountDownLatch liberar = new CountDownLatch(1);
+        try {
+            JobStatusResponse executando = jobs.submeter("teste", progresso -> liberar.await());
+            jobs.submeter("teste", progresso -> { });
+
+            assertThrows(FilaCheiaException.class, () -> jobs.submeter("teste", progresso -> { }));
+
+            liberar.countDown();
+            assertEquals("CONCLUIDO", aguardarFim(jobs, executando.id()).estado());
+        } finally {
+            liberar.countDown();
+            jobs.encerrar();
+        }
+    }
+
+    private static JobStatusResponse aguardarFim(OrganizadorJobService jobs, String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            JobStatusResponse status = jobs.consultar(id).orElseThrow();
+            if (status.estado().equals("CONCLUIDO") || status.estado().equals("ERRO")) return status;
+            Thread.sleep(50);
+        }
+        fail("Job não terminou a tempo.");
+        return null;
+    }
+}
@@ -2,12 +2,21 @@ package br.com.portfoliopelusci.service;
 
 import br.com.portfoliopelusci.config.OrganizadorProperties;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -130,6 +139,550 @@ class OrganizadorServiceTest {
         assertEquals("dados", Files.readString(ordemAll, StandardCharsets.UTF_8));
     }
 
+    @Test
+    void processarCopiaOrdensEAtualizaPlanilhaDeSaida() throws IOException {
+        Path temp = Files.createTempDirectory("org4");
+        Path src = temp.resolve("entrada").resolve("Ciclano").resolve("src");
+        Path dest = temp.resolve("dest");
+        Files.createDirectories(src.resolve("1001"));
+        Files.writeString(src.resolve("1001").resolve("data.txt"), "dados");
+        Files.createDirectories(src.resolve("9999"));
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"),
+                new String[]{"1001", "A", "01/01/2000", "Fulano"},
+                new String[]{"1002", "B", "", "Beltrano"});
+        Path other = temp.resolve("saida.xlsx");
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setOtherExcelPath(other.toString());
+        props.setSourceBasePath(src.toString());
+        props.setDestBasePath(dest.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setDryRun(false);
+
+        OrganizadorService service = new OrganizadorService(props);
+        service.processar();
+
+        assertEquals("dados", Files.readString(dest.resolve("A").resolve("1001 A R").resolve("data.txt")));
+        assertTrue(Files.isDirectory(src.resolve("não tem no documento").resolve("9999")));
+
+        try (Workbook wb = new XSSFWorkbook(Files.newInputStream(other))) {
+            Sheet sheet = wb.getSheetAt(0);
+            DataFormatter fmt = new DataFormatter();
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("1001", fmt.formatCellValue(sheet.getRow(1).getCell(6)));
+            assertEquals("Ciclano", fmt.formatCellValue(sheet.getRow(1).getCell(1)));
+            assertEquals("1002", fmt.formatCellValue(sheet.getRow(2).getCell(6)));
+            assertEquals("Beltrano", fmt.formatCellValue(sheet.getRow(2).getCell(1)));
+        }
+    }
+
+    @Test
+    void processarUsaEAtualizaIndiceDeInspetores() throws IOException {
+        Path temp = Files.createTempDirectory("org9");
+        Path src = temp.resolve("entrada").resolve("Ciclano").resolve("src");
+        Path dest = temp.resolve("dest");
+        Files.createDirectories(src.resolve("1001"));
+        Files.createDirectories(dest);
+        // Índice gravado por uma execução anterior, no formato antigo (sem pasta)
+        Path indice = temp.resolve("dest.indice-inspetores.tsv");
+        Files.writeString(indice, "1002\tIndexado\n", StandardCharsets.UTF_8);
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"),
+                new String[]{"1001", "A", "", "Fulano"},
+                new String[]{"1002", "B", "", "Beltrano"});
+        Path other = temp.resolve("saida.xlsx");
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setOtherExcelPath(other.toString());
+        props.setSourceBasePath(src.toString());
+        props.setDestBasePath(dest.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setDryRun(false);
+
+        new OrganizadorService(props).processar();
+
+        try (Workbook wb = new XSSFWorkbook(Files.newInputStream(other))) {
+            Sheet sheet = wb.getSheetAt(0);
+            DataFormatter fmt = new DataFormatter();
+            assertEquals("Ciclano", fmt.formatCellValue(sheet.getRow(1).getCell(1)));
+            assertEquals("Indexado", fmt.formatCellValue(sheet.getRow(2).getCell(1)));
+        }
+        List<String> linhas = Files.readAllLines(indice, StandardCharsets.UTF_8);
+        // O arquivo só recebe acréscimos, com a pasta onde a ordem foi colocada
+        assertEquals(List.of("1002\tIndexado",
+                "1001\tCiclano\t" + dest.resolve("A").resolve("1001 A N").toAbsolutePath().normalize()), linhas);
+        try (Stream<Path> arquivos = Files.list(dest)) {
+            assertTrue(arquivos.noneMatch(Files::isRegularFile), "índice gravado na pasta de destino");
+        }
+    }
+
+    @Test
+    void indiceConferePastasERelePorAlteracoesExternas() throws IOException {
+        Path temp = Files.createTempDirectory("org9c");
+        Path src = temp.resolve("entrada").resolve("Ciclano").resolve("src");
+        Path dest = temp.resolve("dest");
+        Path existente = Files.createDirectories(temp.resolve("inspetores").resolve("Outro").resolve("1003"));
+        Files.createDirectories(src.resolve("1001"));
+        Files.createDirectories(dest);
+        Path indice = temp.resolve("dest.indice-inspetores.tsv");
+        // A pasta de 1002 foi removida fora da aplicação; a de 1003 continua lá
+        Files.writeString(indice, "1002\tIndexado\t" + temp.resolve("sumiu") + "\n"
+                + "1003\tOutro\t" + existente + "\n", StandardCharsets.UTF_8);
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"),
+                new String[]{"1001", "A", "", "Fulano"},
+                new String[]{"1002", "B", "", "Beltrano"},
+                new String[]{"1003", "C", "", "Sicrano"});
+        Path other = temp.resolve("saida.xlsx");
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setOtherExcelPath(other.toString());
+        props.setSourceBasePath(src.toString());
+        props.setDestBasePath(dest.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setDryRun(false);
+
+        OrganizadorService service = new OrganizadorService(props);
+        service.processar();
+
+        // Outra instância acrescenta uma ordem ao índice já carregado
+        Files.writeString(indice, "1004\tExterno\t" + existente + "\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        Files.delete(src.resolve("não tem no documento"));
+        props.setExcelPath(createExcelCompleto(temp.resolve("plan2.xlsx"),
+                new String[]{"1004", "D", "", "Fulano"}).toString());
+        service.processar();
+
+        try (Workbook wb = new XSSFWorkbook(Files.newInputStream(other))) {
+            Sheet sheet = wb.getSheetAt(0);
+            DataFormatter fmt = new DataFormatter();
+            assertEquals("1002", fmt.formatCellValue(sheet.getRow(2).getCell(6)));
+            assertEquals("Beltrano", fmt.formatCellValue(sheet.getRow(2).getCell(1)));
+            assertEquals("Outro", fmt.formatCellValue(sheet.getRow(3).getCell(1)));
+            assertEquals("1004", fmt.formatCellValue(sheet.getRow(4).getCell(6)));
+            assertEquals("Externo", fmt.formatCellValue(sheet.getRow(4).getCell(1)));
+        }
+    }
+
+    @Test
+    void indiceNaoRegistraDryRunNemSobrescreveInspetorConhecido() throws IOException {
+        Path temp = Files.createTempDirectory("org9b");
+        Path src = temp.resolve("entrada").resolve("Ciclano").resolve("src");
+        Path dest = temp.resolve("dest");
+        Files.createDirectories(src.resolve("1001"));
+        Files.createDirectories(src.resolve("1005"));
+        Files.createDirectories(src.resolve("X7"));
+        Files.createDirectories(dest);
+        Path indice = temp.resolve("dest.indice-inspetores.tsv");
+        Files.writeString(indice, "1001\tIndexado\n", StandardCharsets.UTF_8);
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"),
+                new String[]{"1001", "A", "", "Fulano"},
+                new String[]{"1005", "B", "", "Beltrano"},
+                new String[]{"X7", "C", "", "Outro"});
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setSourceBasePath(src.toString());
+        props.setDestBasePath(dest.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setDryRun(true);
+
+        OrganizadorService service = new OrganizadorService(props);
+        service.processar();
+        // A ordem 1005 só passou pelo dry-run
+        Files.delete(src.resolve("1005"));
+        Files.delete(src.resolve("não tem no documento"));
+        service.processar(ContextoExecucao.de(props).comDryRun(false));
+
+        List<String> linhas = Files.readAllLines(indice, StandardCharsets.UTF_8);
+        assertTrue(linhas.contains("1001\tIndexado"));
+        assertFalse(linhas.stream().anyMatch(l -> l.startsWith("1005\t")));
+        assertFalse(linhas.stream().anyMatch(l -> l.startsWith("X7\t")));
+    }
+
+    @Test
+    void processarAcrescentaApenasOrdensAusentesNaPlanilhaDeSaidaExistente() throws IOException {
+        Path temp = Files.createTempDirectory("org10");
+        Path src = temp.resolve("entrada").resolve("Ciclano").resolve("src");
+        Path dest = temp.resolve("dest");
+        Files.createDirectories(src);
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"),
+                new String[]{"1001", "A", "", "Fulano"},
+                new String[]{"1002", "B", "", "Beltrano"});
+        Path other = temp.resolve("saida.xlsx");
+        try (Workbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet("Ordens");
+            String[] headers = {"Data", "Inspector", "Address", "City", "zipcode", "OTYPE", "Worder"};
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+            Row existente = sheet.createRow(1);
+            existente.createCell(1).setCellValue("Antigo");
+            existente.createCell(6).setCellValue("1001");
+            wb.createSheet("Notas").createRow(0).createCell(0).setCellValue("observação");
+            try (var out = Files.newOutputStream(other)) {
+                wb.write(out);
+            }
+        }
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setOtherExcelPath(other.toString());
+        props.setSourceBasePath(src.toString());
+        props.setDestBasePath(dest.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setDryRun(false);
+
+        new OrganizadorService(props).processar();
+
+        try (Workbook wb = new XSSFWorkbook(Files.newInputStream(other))) {
+            Sheet sheet = wb.getSheetAt(0);
+            DataFormatter fmt = new DataFormatter();
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("Antigo", fmt.formatCellValue(sheet.getRow(1).getCell(1)));
+            assertEquals("1001", fmt.formatCellValue(sheet.getRow(1).getCell(6)));
+            assertEquals("1002", fmt.formatCellValue(sheet.getRow(2).getCell(6)));
+            assertEquals("Beltrano", fmt.formatCellValue(sheet.getRow(2).getCell(1)));
+            assertEquals("observação", fmt.formatCellValue(wb.getSheet("Notas").getRow(0).getCell(0)));
+        }
+    }
+
+    @Test
+    void processarAcrescentaDepoisDoCabecalhoForaDaPrimeiraLinha() throws IOException {
+        Path temp = Files.createTempDirectory("org10c");
+        Path src = temp.resolve("entrada").resolve("Ciclano").resolve("src");
+        Path dest = temp.resolve("dest");
+        Files.createDirectories(src);
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"),
+                new String[]{"1002", "B", "", "Beltrano"});
+        Path other = temp.resolve("saida.xlsx");
+        try (Workbook wb = new XSSFWorkbook()) {
+            // Cabeçalho na linha 3, sem linhas de dados
+            Row header = wb.createSheet("Ordens").createRow(2);
+            String[] headers = {"Data", "Inspector", "Address", "City", "zipcode", "OTYPE", "Worder"};
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+            try (var out = Files.newOutputStream(other)) {
+                wb.write(out);
+            }
+        }
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setOtherExcelPath(other.toString());
+        props.setSourceBasePath(src.toString());
+        props.setDestBasePath(dest.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setDryRun(false);
+
+        new OrganizadorService(props).processar();
+
+        try (Workbook wb = new XSSFWorkbook(Files.newInputStream(other))) {
+            Sheet sheet = wb.getSheetAt(0);
+            DataFormatter fmt = new DataFormatter();
+            assertEquals(3, sheet.getLastRowNum());
+            assertEquals("Worder", fmt.formatCellValue(sheet.getRow(2).getCell(6)));
+            assertEquals("1002", fmt.formatCellValue(sheet.getRow(3).getCell(6)));
+            assertEquals("Beltrano", fmt.formatCellValue(sheet.getRow(3).getCell(1)));
+            // A área usada da aba passa a incluir a linha acrescentada
+            assertEquals("A3:G4", ((XSSFSheet) sheet).getCTWorksheet().getDimension().getRef());
+        }
+    }
+
+    @Test
+    void processarPreservaTiposEAbasDaPlanilhaDeSaida() throws Exception {
+        Path temp = Files.createTempDirectory("org10b");
+        Path src = temp.resolve("entrada").resolve("Ciclano").resolve("src");
+        Path dest = temp.resolve("dest");
+        Files.createDirectories(src);
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"),
+                new String[]{"1002", "B", "", "Beltrano"});
+        Path other = temp.resolve("saida.xlsx");
+        try (Workbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet("Ordens");
+            String[] headers = {"Data", "Inspector", "Address", "City", "zipcode", "OTYPE", "Worder"};
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+            CellStyle data = wb.createCellStyle();
+            data.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+            Row existente = sheet.createRow(1);
+            Cell celulaData = existente.createCell(0);
+            celulaData.setCellValue(java.time.LocalDate.of(2024, 3, 15));
+            celulaData.setCellStyle(data);
+            existente.createCell(4).setCellValue(12345);
+            existente.createCell(6).setCellValue("1001");
+            wb.createSheet("Notas").createRow(0).createCell(0).setCellValue(42.5);
+            try (var out = Files.newOutputStream(other)) {
+                wb.write(out);
+            }
+        }
+        byte[] ordensAntes = lerEntradaZip(other, "xl/worksheets/sheet1.xml");
+        byte[] notasAntes = lerEntradaZip(other, "xl/worksheets/sheet2.xml");
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setOtherExcelPath(other.toString());
+        props.setSourceBasePath(src.toString());
+        props.setDestBasePath(dest.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setDryRun(false);
+
+        new OrganizadorService(props).processar();
+
+        assertArrayEquals(notasAntes, lerEntradaZip(other, "xl/worksheets/sheet2.xml"));
+        String ordensXml = new String(ordensAntes, StandardCharsets.UTF_8);
+        String linhasAntes = ordensXml.substring(0, ordensXml.indexOf("</sheetData>"));
+        // Só a área usada da aba muda antes das novas linhas
+        assertTrue(linhasAntes.contains("<dimension ref=\"A1:G2\"/>"));
+        assertTrue(new String(lerEntradaZip(other, "xl/worksheets/sheet1.xml"), StandardCharsets.UTF_8)
+                .startsWith(linhasAntes.replace("<dimension ref=\"A1:G2\"/>", "<dimension ref=\"A1:G3\"/>")));
+
+        try (Workbook wb = new XSSFWorkbook(Files.newInputStream(other))) {
+            Sheet sheet = wb.getSheetAt(0);
+            Cell celulaData = sheet.getRow(1).getCell(0);
+            assertEquals(CellType.NUMERIC, celulaData.getCellType());
+            assertTrue(DateUtil.isCellDateFormatted(celulaData));
+            assertEquals(java.time.LocalDate.of(2024, 3, 15), celulaData.getLocalDateTimeCellValue().toLocalDate());
+            assertEquals(CellType.NUMERIC, sheet.getRow(1).getCell(4).getCellType());
+            assertEquals(12345, sheet.getRow(1).getCell(4).getNumericCellValue());
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("1002", new DataFormatter().formatCellValue(sheet.getRow(2).getCell(6)));
+            assertEquals(42.5, wb.getSheet("Notas").getRow(0).getCell(0).getNumericCellValue());
+        }
+    }
+
+    private static byte[] lerEntradaZip(Path zip, String nome) throws IOException {
+        try (java.util.zip.ZipFile arquivo = new java.util.zip.ZipFile(zip.toFile())) {
+            try (var in = arquivo.getInputStream(arquivo.getEntry(nome))) {
+                return in.readAllBytes();
+            }
+        }
+    }
+
+    @Test
+    void processarComHardlinkNaoDuplicaArquivos() throws IOException {
+        Path temp = Files.createTempDirectory("org5");
+        Path src = temp.resolve("entrada").resolve("Ciclano").resolve("src");
+        Path dest = temp.resolve("dest");
+        Files.createDirectories(src.resolve("1001"));
+        Files.writeString(src.resolve("1001").resolve("data.txt"), "dados");
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"), new String[]{"1001", "A", "", "Fulano"});
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setSourceBasePath(src.toString());
+        props.setDestBasePath(dest.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setPlacementMode(OrganizadorProperties.PlacementMode.HARDLINK);
+        props.setDryRun(false);
+
+        new OrganizadorService(props).processar();
+
+        Path copia = dest.resolve("A").resolve("1001 A N").resolve("data.txt");
+        assertTrue(Files.isSameFile(src.resolve("1001").resolve("data.txt"), copia));
+    }
+
+    @Test
+    void processarZipPaiEmStreamingExtraiDiretoNaPastaDoInspetor() throws IOException {
+        Path temp = Files.createTempDirectory("org6");
+        Path dest = temp.resolve("dest");
+        Path allOrders = temp.resolve("todas");
+
+        Path inspectorZip = createInspectorZip(temp, "0828-Geovane", "350394452", "dados");
+        Path parentZip = temp.resolve("pai.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(parentZip))) {
+            addZipEntry(out, inspectorZip);
+        }
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"), new String[]{"350394452", "A", "", "Geovane"});
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setParentZipPath(parentZip.toString());
+        props.setSourceBasePath(temp.resolve("src").toString());
+        props.setDestBasePath(dest.toString());
+        props.setAllOrdersBasePath(allOrders.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setZipPaiStreaming(true);
+        props.setDryRun(false);
+
+        new OrganizadorService(props).processarZipPai();
+
+        Path ordemDest = dest.resolve("Geovane").resolve("0828-Geovane").resolve("350394452 A N").resolve("data.txt");
+        Path ordemAll = allOrders.resolve("A").resolve("350394452 A N").resolve("data.txt");
+        assertEquals("dados", Files.readString(ordemDest, StandardCharsets.UTF_8));
+        assertEquals("dados", Files.readString(ordemAll, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void processarComContextosDistintosEmParaleloNaoAlteraConfiguracao() throws Exception {
+        Path temp = Files.createTempDirectory("org7");
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"), new String[]{"1001", "A", "", "Fulano"});
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setSourceBasePath(temp.resolve("config-src").toString());
+        props.setDestBasePath(temp.resolve("config-dest").toString());
+        props.setInspectorIndexPath(temp.resolve("indice.tsv").toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setDryRun(true);
+        OrganizadorService service = new OrganizadorService(props);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> execucoes = new ArrayList<>();
+            for (String arvore : List.of("a", "b")) {
+                Path src = temp.resolve(arvore).resolve("src");
+                Files.createDirectories(src.resolve("1001"));
+                Files.writeString(src.resolve("1001").resolve("data.txt"), arvore);
+                ContextoExecucao ctx = ContextoExecucao.de(props)
+                        .comOrigem(src)
+                        .comDestino(temp.resolve(arvore).resolve("dest"))
+                        .comDryRun(false);
+                execucoes.add(pool.submit(() -> {
+                    service.processar(ctx);
+                    return null;
+                }));
+            }
+            for (Future<?> f : execucoes) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        for (String arvore : List.of("a", "b")) {
+            Path copia = temp.resolve(arvore).resolve("dest").resolve("A").resolve("1001 A N").resolve("data.txt");
+            assertEquals(arvore, Files.readString(copia));
+        }
+        assertTrue(props.isDryRun());
+        assertEquals(temp.resolve("config-src").toString(), props.getSourceBasePath());
+        assertFalse(Files.exists(temp.resolve("config-dest")));
+    }
+
+    @Test
+    void processarZipsEmParaleloReservaNomesDistintosNoDestino() throws IOException {
+        Path temp = Files.createTempDirectory("org8");
+        Path zips = temp.resolve("zips");
+        Path dest = temp.resolve("dest");
+        Files.createDirectories(zips);
+        for (int i = 1; i <= 4; i++) {
+            createInspectorZip(zips, "lote" + i, "1001", "lote" + i);
+        }
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"), new String[]{"1001", "A", "", "Fulano"});
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setZipFolderPath(zips.toString());
+        props.setSourceBasePath(temp.resolve("src").toString());
+        props.setDestBasePath(dest.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setArchiveParallelism(4);
+        props.setDryRun(false);
+
+        new OrganizadorService(props).processarZips();
+
+        Set<String> conteudos = new HashSet<>();
+        try (Stream<Path> pastas = Files.list(dest.resolve("A"))) {
+            for (Path pasta : pastas.toList()) {
+                try (Stream<Path> arquivos = Files.list(pasta)) {
+                    assertEquals(1, arquivos.count());
+                }
+                conteudos.add(Files.readString(pasta.resolve("data.txt")));
+            }
+        }
+        assertEquals(Set.of("lote1", "lote2", "lote3", "lote4"), conteudos);
+    }
+
+    @Test
+    void processarZipPaiAtualizaPlanilhaDeSaidaUmaVezAoFinal() throws IOException {
+        Path temp = Files.createTempDirectory("org11");
+        Path dest = temp.resolve("dest");
+        Path allOrders = temp.resolve("todas");
+
+        Path parentZip = temp.resolve("pai.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(parentZip))) {
+            addZipEntry(out, createInspectorZip(temp, "0828-Geovane", "350394452", "a"));
+            addZipEntry(out, createInspectorZip(temp, "0829-Maria", "350394453", "b"));
+        }
+
+        Path excel = createExcelCompleto(temp.resolve("plan.xlsx"),
+                new String[]{"350394452", "A", "", "Planilha"},
+                new String[]{"350394453", "A", "", "Planilha"});
+        Path other = temp.resolve("saida.xlsx");
+
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setExcelPath(excel.toString());
+        props.setOtherExcelPath(other.toString());
+        props.setParentZipPath(parentZip.toString());
+        props.setSourceBasePath(temp.resolve("src").toString());
+        props.setDestBasePath(dest.toString());
+        props.setAllOrdersBasePath(allOrders.toString());
+        props.getColumns().setNumero("WORDER");
+        props.getColumns().setTipo("OTYPE");
+        props.setArchiveParallelism(1);
+        props.setDryRun(false);
+
+        new OrganizadorService(props).processarZipPai();
+
+        // Com a atualização imediata, a ordem do segundo ZIP seria gravada
+        // antes de o inspetor dela ser conhecido
+        try (Workbook wb = new XSSFWorkbook(Files.newInputStream(other))) {
+            Sheet sheet = wb.getSheetAt(0);
+            DataFormatter fmt = new DataFormatter();
+            assertEquals(2, sheet.getLastRowNum());
+            Set<String> linhas = new HashSet<>();
+            for (int r = 1; r <= 2; r++) {
+                linhas.add(fmt.formatCellValue(sheet.getRow(r).getCell(6)) + "=" + fmt.formatCellValue(sheet.getRow(r).getCell(1)));
+            }
+            assertEquals(Set.of("350394452=Geovane", "350394453=Maria"), linhas);
+        }
+    }
+
+    private static Path createExcelCompleto(Path file, String[]... linhas) throws IOException {
+        String[] headers = {"WORDER", "OTYPE", "DUEDATE", "INSPECTOR", "ADDRESS1", "CITY", "ZIP"};
+        try (Workbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet();
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+            for (int r = 0; r < linhas.length; r++) {
+                Row row = sheet.createRow(r + 1);
+                for (int c = 0; c < linhas[r].length; c++) {
+                    row.createCell(c).setCellValue(linhas[r][c]);
+                }
+            }
+            try (var out = Files.newOutputStream(file)) {
+                wb.write(out);
+            }
+        }
+        return file;
+    }
+
     private static Path createExcel(Path file, String numero, String tipo) throws IOException {
         try (Workbook wb = new XSSFWorkbook()) {
             Sheet sheet = wb.createSheet();
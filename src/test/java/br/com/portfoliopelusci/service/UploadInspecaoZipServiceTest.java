@@ -1,26 +1,65 @@
 package br.com.portfoliopelusci.service;
 
+import br.com.portfoliopelusci.inspecao.config.InspecaoProperties;
 import br.com.portfoliopelusci.inspecao.dto.UploadZipResponse;
+import br.com.portfoliopelusci.inspecao.entity.FotoInspecao;
 import br.com.portfoliopelusci.inspecao.entity.Inspecao;
 import br.com.portfoliopelusci.inspecao.entity.Inspetor;
+import br.com.portfoliopelusci.inspecao.repository.FotoInspecaoRepository;
 import br.com.portfoliopelusci.inspecao.repository.InspecaoRepository;
 import br.com.portfoliopelusci.inspecao.repository.InspetorRepository;
+import br.com.portfoliopelusci.inspecao.service.ArmazenamentoFotos;
+import br.com.portfoliopelusci.inspecao.service.ExecutoresInspecao;
 import br.com.portfoliopelusci.inspecao.service.UploadInspecaoZipService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -33,9 +72,41 @@ class UploadInspecaoZipServiceTest {
     @Mock
     private InspecaoRepository inspecaoRepository;
 
-    @InjectMocks
+    @Mock
+    private FotoInspecaoRepository fotoInspecaoRepository;
+
+    @Mock
+    private InspecaoProperties props;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ArmazenamentoFotos armazenamento;
+
+    private Path raizFotos;
+
+    private ExecutoresInspecao executores;
+
     private UploadInspecaoZipService service;
 
+    @BeforeEach
+    void setUp() throws IOException {
+        InspecaoProperties armazenamentoProps = new InspecaoProperties();
+        raizFotos = Files.createTempDirectory("fotos");
+        armazenamentoProps.setArmazenamentoPath(raizFotos.toString());
+        armazenamentoProps.setThreadsFotos(3);
+        armazenamentoProps.setImportacoesSimultaneas(2);
+        armazenamento = new ArmazenamentoFotos(armazenamentoProps);
+        executores = new ExecutoresInspecao(armazenamentoProps);
+        service = new UploadInspecaoZipService(inspetorRepository, inspecaoRepository, fotoInspecaoRepository,
+                armazenamento, props, executores, entityManager, TransactionOperations.withoutTransaction());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executores.encerrar();
+    }
+
     @Test
     void deveProcessarZipESalvarRelacoes() throws IOException {
         MockMultipartFile file = new MockMultipartFile(
@@ -50,7 +121,11 @@ class UploadInspecaoZipServiceTest {
 
         when(inspetorRepository.findById("12345")).thenReturn(Optional.empty());
         when(inspetorRepository.save(any(Inspetor.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(inspecaoRepository.findByInspetorIdAndWorder(anyString(), anyString())).thenReturn(Optional.empty());
+        when(inspecaoRepository.findByInspetorId("12345")).thenReturn(List.of());
+        when(props.getLoteFotos()).thenReturn(2);
+        when(props.getFilaFotos()).thenReturn(2);
+        when(props.getMaxBytesFoto()).thenReturn(1024L);
+        when(props.getMaxBytesUpload()).thenReturn(1024L * 1024);
         when(inspecaoRepository.save(any(Inspecao.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         UploadZipResponse response = service.processar(file);
@@ -58,9 +133,74 @@ class UploadInspecaoZipServiceTest {
         assertEquals("12345", response.inspetorId());
         assertEquals(2, response.inspecoesAfetadas());
         assertEquals(3, response.fotosSalvas());
+        assertEquals(0, response.fotosDuplicadas());
 
         verify(inspetorRepository).save(any(Inspetor.class));
-        verify(inspecaoRepository, atLeast(3)).save(any(Inspecao.class));
+        // Uma consulta para todas as inspeções e uma gravação por inspeção nova
+        verify(inspecaoRepository).findByInspetorId("12345");
+        verify(inspecaoRepository, times(2)).save(any(Inspecao.class));
+        verify(inspecaoRepository, never()).findByInspetorIdAndWorder(anyString(), anyString());
+        // Fotos em lotes de 2: um lote cheio e o restante ao final
+        verify(fotoInspecaoRepository, times(2)).saveAll(anyList());
+        verify(fotoInspecaoRepository, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        assertTrue(Files.exists(armazenamento.caminho(sha256("png-data"))));
+    }
+
+    @Test
+    void deveIgnorarFotosJaGravadasNaInspecao() throws IOException {
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "12345.zip",
+                "application/zip",
+                zipComArquivos(
+                        "1001/foto1.jpg", "jpeg-data".getBytes(),
+                        "1001/foto1-copia.jpg", "jpeg-data".getBytes(),
+                        "1001/foto2.jpg", "nova".getBytes())
+        );
+
+        Inspetor inspetor = new Inspetor("12345");
+        FotoInspecaoRepository.HashFoto existente = mock(FotoInspecaoRepository.HashFoto.class);
+        when(existente.getWorder()).thenReturn("1001");
+        when(existente.getHash()).thenReturn(sha256("jpeg-data"));
+
+        when(inspetorRepository.findById("12345")).thenReturn(Optional.of(inspetor));
+        when(inspecaoRepository.findByInspetorId("12345")).thenReturn(List.of(new Inspecao("1001", inspetor)));
+        when(fotoInspecaoRepository.findHashesByInspetorId("12345")).thenReturn(List.of(existente));
+        when(props.getLoteFotos()).thenReturn(50);
+        when(props.getMaxBytesFoto()).thenReturn(1024L);
+        when(props.getMaxBytesUpload()).thenReturn(1024L * 1024);
+
+        UploadZipResponse response = service.processar(file);
+
+        assertEquals(1, response.inspecoesAfetadas());
+        assertEquals(1, response.fotosSalvas());
+        assertEquals(2, response.fotosDuplicadas());
+        verify(inspecaoRepository, never()).save(any(Inspecao.class));
+        verify(fotoInspecaoRepository).saveAll(anyList());
+    }
+
+    @Test
+    void deveAnexarFotosSemCarregarAsFotosDaInspecao() throws IOException {
+        Inspetor inspetor = new Inspetor("12345");
+        Inspecao existente = spy(new Inspecao("1001", inspetor));
+        when(inspetorRepository.findById("12345")).thenReturn(Optional.of(inspetor));
+        when(inspecaoRepository.findByInspetorId("12345")).thenReturn(List.of(existente));
+        when(props.getLoteFotos()).thenReturn(50);
+        when(props.getMaxBytesFoto()).thenReturn(1024L);
+        when(props.getMaxBytesUpload()).thenReturn(1024L * 1024);
+
+        UploadZipResponse response = service.processar("12345.zip",
+                new ByteArrayInputStream(zipComArquivos("1001/foto1.jpg", "jpeg-data".getBytes())));
+
+        assertEquals(1, response.fotosSalvas());
+        // A foto leva só a referência da inspeção; a coleção não é tocada
+        verify(existente, never()).adicionarFoto(any(FotoInspecao.class));
+        verify(fotoInspecaoRepository).saveAll(anyList());
+        // O enhancement do build é o que torna o LONGBLOB "conteudo" realmente lazy
+        FotoInspecao foto = new FotoInspecao(existente, "foto1.jpg", "image/jpeg", sha256("jpeg-data"), 9);
+        assertInstanceOf(PersistentAttributeInterceptable.class, foto);
+        assertInstanceOf(SelfDirtinessTracker.class, foto);
     }
 
     @Test
@@ -70,7 +210,304 @@ class UploadInspecaoZipServiceTest {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> service.processar(file));
 
         assertEquals("O arquivo precisa ser um .zip.", exception.getMessage());
-        verifyNoInteractions(inspetorRepository, inspecaoRepository);
+        verifyNoInteractions(inspetorRepository, inspecaoRepository, fotoInspecaoRepository);
+    }
+
+    @Test
+    void deveProcessarZipLidoDeStream() throws IOException {
+        Inspetor inspetor = new Inspetor("12345");
+        when(inspetorRepository.findById("12345")).thenReturn(Optional.of(inspetor));
+        when(inspecaoRepository.findByInspetorId("12345")).thenReturn(List.of(new Inspecao("1001", inspetor)));
+        when(props.getLoteFotos()).thenReturn(50);
+        when(props.getMaxBytesFoto()).thenReturn(1024L);
+        when(props.getMaxBytesUpload()).thenReturn(1024L * 1024);
+
+        UploadZipResponse response = service.processar("12345.zip",
+                new ByteArrayInputStream(zipComArquivos("1001/foto1.jpg", "jpeg-data".getBytes())));
+
+        assertEquals(1, response.fotosSalvas());
+        assertThrows(IllegalArgumentException.class,
+                () -> service.processar("12345.rar", new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void deveUsarOMesmoInspetorQueOZipPaiEmTodosOsUploads() throws IOException {
+        when(inspetorRepository.findById("John")).thenReturn(Optional.of(new Inspetor("John")));
+        when(inspecaoRepository.findByInspetorId("John")).thenReturn(List.of());
+        when(props.getLoteFotos()).thenReturn(50);
+        when(props.getMaxBytesFoto()).thenReturn(1024L);
+        when(props.getMaxBytesUpload()).thenReturn(1024L * 1024);
+        when(inspecaoRepository.save(any(Inspecao.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        byte[] zip = zipComArquivos("1001/foto1.jpg", "jpeg-data".getBytes());
+
+        UploadZipResponse multipart = service.processar(
+                new MockMultipartFile("file", "20250806-JOHN.zip", "application/zip", zip));
+        UploadZipResponse stream = service.processar("20250807-john.zip", new ByteArrayInputStream(zip));
+
+        assertEquals("John", multipart.inspetorId());
+        assertEquals("John", stream.inspetorId());
+        verify(inspetorRepository, never()).save(any(Inspetor.class));
+    }
+
+    @Test
+    void deveCompartilharPoolsEntreImportacoesSimultaneas() throws Exception {
+        // Um inspetor por requisição: importações do mesmo inspetor rodam em fila
+        when(inspetorRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.of(new Inspetor(invocation.getArgument(0))));
+        when(inspecaoRepository.findByInspetorId(anyString()))
+                .thenAnswer(invocation -> List.of(new Inspecao("1001", new Inspetor(invocation.getArgument(0)))));
+        when(props.getLoteFotos()).thenReturn(50);
+        when(props.getMaxBytesFoto()).thenReturn(1024L);
+        when(props.getMaxBytesUpload()).thenReturn(1024L * 1024);
+        byte[] zip = zipComArquivos(
+                "1001/foto1.jpg", "um".getBytes(),
+                "1001/foto2.jpg", "dois".getBytes(),
+                "1001/foto3.jpg", "tres".getBytes());
+
+        Set<String> threadsGravacao = ConcurrentHashMap.newKeySet();
+        ArmazenamentoFotos armazenamentoObservado = spy(armazenamento);
+        doAnswer(invocation -> {
+            threadsGravacao.add(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(armazenamentoObservado).armazenar(any(Path.class), any(byte[].class), anySet());
+        UploadInspecaoZipService observado = new UploadInspecaoZipService(inspetorRepository, inspecaoRepository,
+                fotoInspecaoRepository, armazenamentoObservado, props, executores, entityManager,
+                TransactionOperations.withoutTransaction());
+
+        ExecutorService requisicoes = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<UploadZipResponse>> respostas = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                String nome = "1234" + i + ".zip";
+                respostas.add(requisicoes.submit(
+                        () -> observado.processar(nome, new ByteArrayInputStream(zip))));
+            }
+            for (Future<UploadZipResponse> resposta : respostas) {
+                assertEquals(3, resposta.get(10, TimeUnit.SECONDS).fotosSalvas());
+            }
+        } finally {
+            requisicoes.shutdownNow();
+        }
+
+        assertFalse(threadsGravacao.isEmpty());
+        // As 18 fotos passaram pelas 3 threads do pool compartilhado, não por um pool por requisição
+        assertTrue(threadsGravacao.size() <= 3, "threads de gravação: " + threadsGravacao);
+        assertTrue(threadsGravacao.stream().allMatch(nome -> nome.startsWith("importacao-fotos-gravador-")),
+                "threads de gravação: " + threadsGravacao);
+    }
+
+    @Test
+    void deveAbrirATransacaoSoDepoisDeObterAVaga() throws Exception {
+        when(inspetorRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.of(new Inspetor(invocation.getArgument(0))));
+        when(inspecaoRepository.findByInspetorId(anyString()))
+                .thenAnswer(invocation -> List.of(new Inspecao("1001", new Inspetor(invocation.getArgument(0)))));
+        when(props.getLoteFotos()).thenReturn(50);
+        when(props.getMaxBytesFoto()).thenReturn(1024L);
+        when(props.getMaxBytesUpload()).thenReturn(1024L * 1024);
+        byte[] zip = zipComArquivos("1001/foto1.jpg", "um".getBytes());
+
+        // Conta as transações abertas ao mesmo tempo (o setUp limita a 2 importações simultâneas)
+        AtomicInteger abertas = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        TransactionOperations transacao = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                maximo.accumulateAndGet(abertas.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(100);
+                    return action.doInTransaction(null);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    abertas.decrementAndGet();
+                }
+            }
+        };
+        UploadInspecaoZipService limitado = new UploadInspecaoZipService(inspetorRepository, inspecaoRepository,
+                fotoInspecaoRepository, armazenamento, props, executores, entityManager, transacao);
+
+        ExecutorService requisicoes = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<UploadZipResponse>> respostas = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                String nome = "1234" + i + ".zip";
+                respostas.add(requisicoes.submit(
+                        () -> limitado.processar(nome, new ByteArrayInputStream(zip))));
+            }
+            for (Future<UploadZipResponse> resposta : respostas) {
+                resposta.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            requisicoes.shutdownNow();
+        }
+
+        assertTrue(maximo.get() <= 2, "transações abertas ao mesmo tempo: " + maximo.get());
+    }
+
+    @Test
+    void deveContarComoRepetidasAsFotosDeUmReenvioSimultaneo() throws Exception {
+        // Banco simulado: o que é salvo fica visível às leituras seguintes, e
+        // salvar de novo a mesma chave falha como as chaves únicas do MySQL
+        Set<String> inspetores = ConcurrentHashMap.newKeySet();
+        Set<String> worders = ConcurrentHashMap.newKeySet();
+        List<String[]> fotos = new CopyOnWriteArrayList<>();
+        when(inspetorRepository.findById("12345"))
+                .thenAnswer(invocation -> inspetores.contains("12345")
+                        ? Optional.of(new Inspetor("12345")) : Optional.empty());
+        when(inspetorRepository.save(any(Inspetor.class))).thenAnswer(invocation -> {
+            Inspetor novo = invocation.getArgument(0);
+            if (!inspetores.add(novo.getId())) {
+                throw new DataIntegrityViolationException("Duplicate entry for key 'PRIMARY'");
+            }
+            return novo;
+        });
+        when(inspecaoRepository.findByInspetorId("12345")).thenAnswer(invocation -> worders.stream()
+                .map(w -> new Inspecao(w, new Inspetor("12345"))).toList());
+        when(inspecaoRepository.save(any(Inspecao.class))).thenAnswer(invocation -> {
+            Inspecao nova = invocation.getArgument(0);
+            if (!worders.add(nova.getWorder())) {
+                throw new DataIntegrityViolationException("Duplicate entry for key 'uk_inspecao_inspetor_worder'");
+            }
+            return nova;
+        });
+        when(fotoInspecaoRepository.findHashesByInspetorId("12345")).thenAnswer(invocation -> {
+            List<FotoInspecaoRepository.HashFoto> hashes = new ArrayList<>();
+            for (String[] foto : fotos) {
+                hashes.add(new FotoInspecaoRepository.HashFoto() {
+                    @Override
+                    public String getWorder() {
+                        return foto[0];
+                    }
+
+                    @Override
+                    public String getHash() {
+                        return foto[1];
+                    }
+                });
+            }
+            // Alarga a janela entre ler os hashes e gravar as fotos
+            Thread.sleep(100);
+            return hashes;
+        });
+        when(fotoInspecaoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<FotoInspecao> lote = invocation.getArgument(0);
+            for (FotoInspecao nova : lote) {
+                String[] chave = {(String) ReflectionTestUtils.getField(nova, "worder"),
+                        (String) ReflectionTestUtils.getField(nova, "hash")};
+                if (fotos.stream().anyMatch(f -> Arrays.equals(f, chave))) {
+                    throw new DataIntegrityViolationException("Duplicate entry for key 'uk_foto_inspecao_inspecao_hash'");
+                }
+                fotos.add(chave);
+            }
+            return lote;
+        });
+        when(props.getLoteFotos()).thenReturn(50);
+        when(props.getMaxBytesFoto()).thenReturn(1024L);
+        when(props.getMaxBytesUpload()).thenReturn(1024L * 1024);
+        byte[] zip = zipComArquivos(
+                "1001/foto1.jpg", "um".getBytes(),
+                "1002/foto2.jpg", "dois".getBytes());
+
+        ExecutorService requisicoes = Executors.newFixedThreadPool(2);
+        List<UploadZipResponse> respostas = new ArrayList<>();
+        try {
+            List<Future<UploadZipResponse>> envios = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                envios.add(requisicoes.submit(() -> service.processar("12345.zip", new ByteArrayInputStream(zip))));
+            }
+            for (Future<UploadZipResponse> envio : envios) {
+                respostas.add(envio.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            requisicoes.shutdownNow();
+        }
+
+        // Um dos envios grava as fotos; o outro as encontra já gravadas
+        assertEquals(2, respostas.stream().mapToInt(UploadZipResponse::fotosSalvas).sum());
+        assertEquals(2, respostas.stream().mapToInt(UploadZipResponse::fotosDuplicadas).sum());
+        assertEquals(2, fotos.size());
+        assertEquals(Set.of("1001", "1002"), worders);
+    }
+
+    @Test
+    void deveInterromperImportacaoQuandoBancoFalhar() throws IOException {
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "12345.zip",
+                "application/zip",
+                zipComArquivos(
+                        "1001/foto1.jpg", "um".getBytes(),
+                        "1001/foto2.jpg", "dois".getBytes(),
+                        "1001/foto3.jpg", "tres".getBytes(),
+                        "1001/foto4.jpg", "quatro".getBytes(),
+                        "1001/foto5.jpg", "cinco".getBytes(),
+                        "1001/foto6.jpg", "seis".getBytes())
+        );
+
+        when(inspetorRepository.findById("12345")).thenReturn(Optional.of(new Inspetor("12345")));
+        when(inspecaoRepository.findByInspetorId("12345")).thenReturn(List.of());
+        when(props.getLoteFotos()).thenReturn(1);
+        when(props.getFilaFotos()).thenReturn(1);
+        when(props.getMaxBytesFoto()).thenReturn(1024L);
+        when(props.getMaxBytesUpload()).thenReturn(1024L * 1024);
+        when(inspecaoRepository.save(any(Inspecao.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fotoInspecaoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            // Dá tempo para a leitura encher a fila e ficar esperando espaço
+            Thread.sleep(500);
+            throw new IllegalStateException("banco indisponível");
+        });
+
+        // Com a fila cheia, a leitura não pode ficar presa esperando espaço
+        IllegalStateException exception = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(IllegalStateException.class, () -> service.processar(file)));
+
+        assertEquals("banco indisponível", exception.getMessage());
+        verify(fotoInspecaoRepository).saveAll(anyList());
+        // A leitura terminou antes do retorno, e as fotos que ficaram na fila não deixam temporários
+        assertTrue(Thread.getAllStackTraces().values().stream()
+                .flatMap(Arrays::stream)
+                .noneMatch(frame -> frame.getMethodName().equals("lerEntradas")));
+        try (Stream<Path> temporarios = Files.list(raizFotos.resolve("tmp"))) {
+            assertEquals(0, temporarios.count());
+        }
+    }
+
+    @Test
+    void deveApagarFotosNovasQuandoTransacaoVoltarAtras() throws IOException {
+        Inspetor inspetor = new Inspetor("12345");
+        when(inspetorRepository.findById("12345")).thenReturn(Optional.of(inspetor));
+        when(inspecaoRepository.findByInspetorId("12345")).thenReturn(List.of(new Inspecao("1001", inspetor)));
+        when(props.getLoteFotos()).thenReturn(50);
+        when(props.getMaxBytesFoto()).thenReturn(1024L);
+        when(props.getMaxBytesUpload()).thenReturn(1024L * 1024);
+        // Conteúdo já gravado por uma importação anterior, confirmada
+        byte[] buffer = new byte[1024];
+        armazenamento.armazenar(armazenamento.gravarTemporario(
+                new ByteArrayInputStream("antiga".getBytes()), buffer, 1024), buffer);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.processar("12345.zip", new ByteArrayInputStream(zipComArquivos(
+                    "1001/foto1.jpg", "antiga".getBytes(),
+                    "1001/foto2.jpg", "nova".getBytes())));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(Files.exists(armazenamento.caminho(sha256("antiga"))));
+        assertTrue(Files.notExists(armazenamento.caminho(sha256("nova"))));
+    }
+
+    private static String sha256(String conteudo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(conteudo.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private static byte[] zipComArquivos(Object... dados) throws IOException {
@@ -0,0 +1,183 @@
+package br.com.portfoliopelusci.service;
+
+import br.com.portfoliopelusci.config.OrganizadorProperties;
+import br.com.portfoliopelusci.dto.UploadParcialResponse;
+import br.com.portfoliopelusci.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadsParciaisTest {
+
+    @Test
+    void montaArquivoComPartesRetomadas() throws Exception {
+        Path raiz = Files.createTempDirectory("uploads");
+        UploadsParciais uploads = novo(raiz);
+
+        UploadParcialResponse inicio = uploads.iniciar("12345.zip", 10);
+        String id = inicio.id();
+        assertEquals(0, inicio.recebidos());
+
+        uploads.gravarParte(id, 0, stream("abcd"));
+        // Parte além dos bytes recebidos deixaria um buraco
+        UploadsParciais.OffsetInvalidoException erro = assertThrows(UploadsParciais.OffsetInvalidoException.class,
+                () -> uploads.gravarParte(id, 6, stream("ghij")));
+        assertEquals(4, erro.getStatus().recebidos());
+        assertThrows(IllegalArgumentException.class, () -> uploads.concluir(id));
+
+        // Reenvio parcial sobrepondo bytes já recebidos
+        uploads.gravarParte(id, 2, stream("cdef"));
+        UploadParcialResponse fim = uploads.gravarParte(id, 6, stream("ghij"));
+        assertTrue(fim.completo());
+        assertEquals(fim, uploads.consultar(id));
+
+        Path arquivo = uploads.concluir(id);
+        assertEquals("12345.zip", arquivo.getFileName().toString());
+        assertEquals("abcdefghij", Files.readString(arquivo));
+        assertThrows(IllegalStateException.class, () -> uploads.concluir(id));
+
+        uploads.descartar(id);
+        assertThrows(ResourceNotFoundException.class, () -> uploads.consultar(id));
+        assertFalse(Files.exists(arquivo));
+    }
+
+    @Test
+    void rejeitaParteMaiorQueTamanhoDeclarado() throws Exception {
+        UploadsParciais uploads = novo(Files.createTempDirectory("uploads"));
+        String id = uploads.iniciar("pai.zip", 4).id();
+
+        assertThrows(IllegalArgumentException.class, () -> uploads.gravarParte(id, 0, stream("abcdef")));
+        assertEquals(4, uploads.consultar(id).recebidos());
+        assertThrows(ResourceNotFoundException.class, () -> uploads.consultar("../../etc"));
+    }
+
+    @Test
+    void mantemTravasSomenteDeUploadsAbertos() throws Exception {
+        UploadsParciais uploads = novo(Files.createTempDirectory("uploads"));
+
+        for (int i = 0; i < 100; i++) {
+            String inexistente = UUID.randomUUID().toString();
+            assertThrows(ResourceNotFoundException.class, () -> uploads.gravarParte(inexistente, 0, stream("x")));
+        }
+        assertEquals(0, uploads.travasAtivas());
+
+        String id = uploads.iniciar("12345.zip", 2).id();
+        uploads.gravarParte(id, 0, stream("ab"));
+        assertEquals(1, uploads.travasAtivas());
+        uploads.concluir(id);
+        assertEquals(0, uploads.travasAtivas());
+        assertThrows(IllegalStateException.class, () -> uploads.gravarParte(id, 0, stream("ab")));
+        uploads.liberar(id);
+        assertEquals(0, uploads.travasAtivas());
+        uploads.descartar(id);
+        assertEquals(0, uploads.travasAtivas());
+    }
+
+    @Test
+    void removeUploadsAbandonadosAoIniciarOutro() throws Exception {
+        Path raiz = Files.createTempDirectory("uploads");
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setChunkedUploadPath(raiz.toString());
+        props.setChunkedUploadTtlHours(1);
+        UploadsParciais uploads = new UploadsParciais(props);
+
+        String abandonado = uploads.iniciar("antigo.zip", 4).id();
+        String reservado = uploads.iniciar("reservado.zip", 1).id();
+        uploads.gravarParte(reservado, 0, stream("r"));
+        uploads.concluir(reservado);
+        String recente = uploads.iniciar("recente.zip", 4).id();
+        FileTime duasHorasAtras = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+        Files.setLastModifiedTime(raiz.resolve(abandonado).resolve("antigo.zip"), duasHorasAtras);
+        Files.setLastModifiedTime(raiz.resolve(reservado).resolve("reservado.zip"), duasHorasAtras);
+
+        uploads.iniciar("novo.zip", 4);
+
+        assertThrows(ResourceNotFoundException.class, () -> uploads.consultar(abandonado));
+        assertFalse(Files.exists(raiz.resolve(abandonado)));
+        assertTrue(uploads.consultar(reservado).completo());
+        assertEquals(0, uploads.consultar(recente).recebidos());
+        assertEquals(0, uploads.travasAtivas());
+    }
+
+    @Test
+    void varreduraNaoEsperaUploadRecebendoParte() throws Exception {
+        Path raiz = Files.createTempDirectory("uploads");
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setChunkedUploadPath(raiz.toString());
+        props.setChunkedUploadTtlHours(1);
+        UploadsParciais uploads = new UploadsParciais(props);
+        String lento = uploads.iniciar("lento.zip", 4).id();
+
+        // Parte cujo envio só avança quando liberado
+        CountDownLatch entrou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        InputStream parte = new InputStream() {
+            private final InputStream dados = stream("abcd");
+
+            @Override
+            public int read() throws IOException {
+                esperar();
+                return dados.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                esperar();
+                return dados.read(b, off, len);
+            }
+
+            private void esperar() throws IOException {
+                entrou.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+        };
+        ExecutorService envio = Executors.newSingleThreadExecutor();
+        try {
+            Future<UploadParcialResponse> gravacao = envio.submit(() -> uploads.gravarParte(lento, 0, parte));
+            assertTrue(entrou.await(5, TimeUnit.SECONDS));
+            FileTime duasHorasAtras = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+            Files.setLastModifiedTime(raiz.resolve(lento).resolve("lento.zip"), duasHorasAtras);
+
+            // A varredura do novo upload pula o que está com a trava
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> uploads.iniciar("novo.zip", 4));
+            assertTrue(Files.exists(raiz.resolve(lento)));
+
+            liberar.countDown();
+            assertTrue(gravacao.get(5, TimeUnit.SECONDS).completo());
+        } finally {
+            liberar.countDown();
+            envio.shutdownNow();
+        }
+    }
+
+    private static UploadsParciais novo(Path raiz) {
+        OrganizadorProperties props = new OrganizadorProperties();
+        props.setChunkedUploadPath(raiz.toString());
+        return new UploadsParciais(props);
+    }
+
+    private static ByteArrayInputStream stream(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}